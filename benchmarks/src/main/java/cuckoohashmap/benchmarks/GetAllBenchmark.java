@@ -0,0 +1,112 @@
+package cuckoohashmap.benchmarks;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cuckoohashmap.CuckooHashMap;
+
+/**
+ * Batched lookups with getAll against the same lookups made one get at
+ * a time.  Scores are per batch.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GetAllBenchmark
+{
+    /** Number of entries in the map. */
+    @Param({"65536", "16777216"})
+    public int size;
+
+    /** Number of keys looked up together. */
+    @Param({"16", "128"})
+    public int batch;
+
+    private CuckooHashMap<Long, Long> map;
+    private Long[][] batches;
+    private Long[] out;
+    private int next;
+
+    /**
+     * Fills the map and splits random present keys into batches.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        SplittableRandom random = new SplittableRandom(42);
+        Long[] keys = MapState.KeyDistribution.RANDOM.generate(size, 0,
+            random);
+        map = CuckooHashMap.bulkLoad(Arrays.stream(keys)
+            .map(k -> Map.entry(k, k)), 1);
+        batches = new Long[1024][batch];
+        for (Long[] b : batches)
+        {
+            for (int i = 0; i < batch; i++)
+            {
+                b[i] = keys[random.nextInt(size)];
+            }
+        }
+        out = new Long[batch];
+    }
+
+    /**
+     * Returns the next batch of keys.
+     * @return The keys.
+     */
+    private Long[] nextBatch()
+    {
+        Long[] b = batches[next];
+        next = (next + 1) & (batches.length - 1);
+        return b;
+    }
+
+    /**
+     * Looks the batch up with getAll.
+     * @return The number found.
+     */
+    @Benchmark
+    public int getAll()
+    {
+        return map.getAll(nextBatch(), out);
+    }
+
+    /**
+     * Looks the batch up one key at a time.
+     * @return The number found.
+     */
+    @Benchmark
+    public int getEach()
+    {
+        Long[] keys = nextBatch();
+        int found = 0;
+        for (int i = 0; i < keys.length; i++)
+        {
+            out[i] = map.get(keys[i]);
+            if (out[i] != null)
+            {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,107 @@
+package cuckoohashmap.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Single-operation latency of the cuckoo map against the JDK maps.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MapBenchmark
+{
+    /**
+     * Looks up a key that is present.
+     * @param state The populated map.
+     * @return The value found.
+     */
+    @Benchmark
+    public Long getHit(MapState state)
+    {
+        return state.map.get(state.hits[state.nextIndex()]);
+    }
+
+    /**
+     * Looks up a key that is absent.
+     * @param state The populated map.
+     * @return The value found, always null.
+     */
+    @Benchmark
+    public Long getMiss(MapState state)
+    {
+        return state.map.get(state.misses[state.nextIndex()]);
+    }
+
+    /**
+     * Replaces the value of a key that is present.
+     * @param state The populated map.
+     * @return The previous value.
+     */
+    @Benchmark
+    public Long putOverwrite(MapState state)
+    {
+        Long key = state.hits[state.nextIndex()];
+        return state.map.put(key, key);
+    }
+
+    /**
+     * Removes a present key and puts it back, so the map stays full.
+     * @param state The populated map.
+     * @return The removed value.
+     */
+    @Benchmark
+    public Long removeAndPut(MapState state)
+    {
+        Long key = state.hits[state.nextIndex()];
+        Long old = state.map.remove(key);
+        state.map.put(key, key);
+        return old;
+    }
+
+    /**
+     * Fills a fresh map presized for the load factor, including any
+     * resizes the implementation needs on the way.
+     * @param state Supplies the keys and sizing.
+     * @return The filled map.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Map<Long, Long> fill(MapState state)
+    {
+        Map<Long, Long> map = state.type.create(state.size, state.loadFactor);
+        for (Long key : state.hits)
+        {
+            map.put(key, key);
+        }
+        return map;
+    }
+
+    /**
+     * Walks every entry of the populated map.
+     * @param state The populated map.
+     * @param hole Consumes the entries.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void iterate(MapState state, Blackhole hole)
+    {
+        for (Map.Entry<Long, Long> entry : state.map.entrySet())
+        {
+            hole.consume(entry.getValue());
+        }
+    }
+}
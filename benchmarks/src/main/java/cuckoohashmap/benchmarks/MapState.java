@@ -0,0 +1,154 @@
+package cuckoohashmap.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import cuckoohashmap.ConcurrentCuckooHashMap;
+import cuckoohashmap.CuckooHashMap;
+
+/**
+ * Shared benchmark state: a populated map plus the keys that hit and
+ * miss it.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+@State(Scope.Thread)
+public class MapState
+{
+    /** Entries held by each cuckoo bucket. */
+    static final int SLOTS = 4;
+
+    /**
+     * Map implementations under test.
+     */
+    public enum MapType
+    {
+        CUCKOO, CONCURRENT_CUCKOO, HASH_MAP, CONCURRENT_HASH_MAP;
+
+        /**
+         * Creates an empty map sized for the given entries and load.
+         * @param size Expected number of entries.
+         * @param loadFactor Target fraction of occupied slots.
+         * @return The new map.
+         */
+        Map<Long, Long> create(int size, double loadFactor)
+        {
+            int buckets = (int) Math.ceil(size / (loadFactor * SLOTS));
+            int capacity = (int) Math.ceil(size / loadFactor);
+            switch (this)
+            {
+                case CUCKOO:
+                    return new CuckooHashMap<>(buckets, SLOTS);
+                case CONCURRENT_CUCKOO:
+                    return new ConcurrentCuckooHashMap<>(buckets, SLOTS);
+                case HASH_MAP:
+                    return new HashMap<>(capacity, (float) loadFactor);
+                default:
+                    return new ConcurrentHashMap<>(capacity,
+                        (float) loadFactor);
+            }
+        }
+    }
+
+    /**
+     * Shapes of the generated key sets.
+     */
+    public enum KeyDistribution
+    {
+        SEQUENTIAL, RANDOM, CLUSTERED;
+
+        /**
+         * Generates distinct keys.
+         * @param count Number of keys.
+         * @param offset Added to each key so that separate calls with
+         *     different offsets do not overlap.
+         * @param random Source for the random distribution.
+         * @return The keys.
+         */
+        Long[] generate(int count, long offset, SplittableRandom random)
+        {
+            Long[] keys = new Long[count];
+            for (int i = 0; i < count; i++)
+            {
+                long key;
+                switch (this)
+                {
+                    case SEQUENTIAL:
+                        key = offset + i;
+                        break;
+                    case CLUSTERED:
+                        // Keys differing only in high bits stress weak mixing.
+                        key = (offset + i) << 12;
+                        break;
+                    default:
+                        key = random.nextLong() | 1L;
+                        key = offset == 0 ? key : -key;
+                        break;
+                }
+                keys[i] = key;
+            }
+            return keys;
+        }
+    }
+
+    /** Map implementation. */
+    @Param({"CUCKOO", "HASH_MAP", "CONCURRENT_HASH_MAP"})
+    public MapType type;
+
+    /** Number of entries in the populated map. */
+    @Param({"256", "65536", "16777216"})
+    public int size;
+
+    /** Target fraction of occupied slots. */
+    @Param({"0.5", "0.75", "0.9"})
+    public double loadFactor;
+
+    /** Key shape. */
+    @Param({"SEQUENTIAL", "RANDOM", "CLUSTERED"})
+    public KeyDistribution keys;
+
+    /** The populated map. */
+    Map<Long, Long> map;
+    /** Keys present in the map. */
+    Long[] hits;
+    /** Keys absent from the map. */
+    Long[] misses;
+    /** Cursor into the key arrays. */
+    int next;
+
+    /**
+     * Builds the map and the key arrays.
+     */
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        SplittableRandom random = new SplittableRandom(42);
+        hits = keys.generate(size, 0, random);
+        // Random misses are made negative, the others start past the hits.
+        misses = keys.generate(size, size, random);
+        map = type.create(size, loadFactor);
+        for (Long key : hits)
+        {
+            map.put(key, key);
+        }
+    }
+
+    /**
+     * Returns the index of the next key, wrapping at the end.
+     * @return An index into the key arrays.
+     */
+    int nextIndex()
+    {
+        int i = next;
+        next = i + 1 == size ? 0 : i + 1;
+        return i;
+    }
+}
@@ -0,0 +1,1061 @@
+package cuckoohashmap;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread-safe cuckoo hash map in the style of libcuckoo.  Buckets are
+ * guarded by a fixed array of striped locks.  A writer locks only the
+ * stripes of a key's two buckets, and a displacement locks the two
+ * buckets of each move along its path.  Readers take no locks; they
+ * read both buckets optimistically and retry if either stripe was
+ * written meanwhile.  Resizing locks every stripe.
+ * <p>
+ * Null keys and values are not permitted.  Iterators are weakly
+ * consistent: they never throw ConcurrentModificationException, but
+ * an entry displaced by a concurrent insert may be skipped or seen
+ * twice.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ * @param <K> Class variable for keys.
+ * @param <V> Class variable for values.
+ */
+public class ConcurrentCuckooHashMap<K, V> extends AbstractMap<K, V>
+    implements ConcurrentMap<K, V>
+{
+    /** Default number of entries held by each bucket. */
+    private static final int DEFAULT_SLOTS = 4;
+    /** Default limit on entries moved by a single insert. */
+    private static final int DEFAULT_MAX_PATH = 5;
+    /** Number of lock stripes, a power of two. */
+    private static final int LOCK_STRIPES = 1024;
+    /** Optimistic read attempts before a reader takes read locks. */
+    private static final int OPTIMISTIC_TRIES = 4;
+
+    private volatile Table table;
+    private final StampedLock[] locks;
+    private final int slots;
+    private final HashStrategy strategy;
+    private final LongAdder count;
+    private final ThreadLocal<PathSearch> searches;
+    private Set<Map.Entry<K, V>> entrySet = null;
+
+    /**
+     * Constructor for concurrent cuckoo hash map.
+     * @param numBuckets The number of buckets.
+     */
+    public ConcurrentCuckooHashMap(int numBuckets)
+    {
+        this(numBuckets, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Constructor for concurrent cuckoo hash map with set-associative
+     * buckets.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     */
+    public ConcurrentCuckooHashMap(int numBuckets, int slotsPerBucket)
+    {
+        this(numBuckets, slotsPerBucket, new MurmurHashStrategy());
+    }
+
+    /**
+     * Constructor for concurrent cuckoo hash map with a custom hash
+     * family.  The strategy must be safe to call from many threads.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @param hashStrategy Mixes key hash codes into bucket choices.
+     */
+    public ConcurrentCuckooHashMap(int numBuckets, int slotsPerBucket,
+            HashStrategy hashStrategy)
+    {
+        if (numBuckets < 1 || slotsPerBucket < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+        slots = slotsPerBucket;
+        strategy = hashStrategy;
+        count = new LongAdder();
+        locks = new StampedLock[LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++)
+        {
+            locks[i] = new StampedLock();
+        }
+        searches = ThreadLocal.withInitial(PathSearch::new);
+        table = new Table(numBuckets);
+    }
+
+    /**
+     * @see java.util.Map#size()
+     * @return The size of the map.
+     */
+    public int size()
+    {
+        long n = count.sum();
+        if (n > Integer.MAX_VALUE)
+        {
+            return Integer.MAX_VALUE;
+        }
+        return (n < 0) ? 0 : (int) n;
+    }
+
+    /**
+     * @see java.util.Map#get(java.lang.Object)
+     * @param key The key.
+     * @return The value.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key)
+    {
+        long hash = strategy.hash(key.hashCode());
+        for (int attempt = 0; attempt < OPTIMISTIC_TRIES; attempt++)
+        {
+            Table t = table;
+            int b1 = t.h1(hash);
+            int b2 = t.h2(hash);
+            StampedLock l1 = locks[stripe(b1)];
+            StampedLock l2 = locks[stripe(b2)];
+            long s1 = l1.tryOptimisticRead();
+            long s2 = l2.tryOptimisticRead();
+            if (s1 == 0 || s2 == 0)
+            {
+                Thread.onSpinWait();
+                continue;
+            }
+            int index = t.indexOf(key, hash, b1, b2);
+            Object value = (index < 0) ? null : t.values[index];
+            if (l1.validate(s1) && l2.validate(s2) && t == table)
+            {
+                return (V) value;
+            }
+        }
+        Table t = lockBuckets(hash, false);
+        try
+        {
+            int index = t.indexOf(key, hash, t.h1(hash), t.h2(hash));
+            return (index < 0) ? null : (V) t.values[index];
+        }
+        finally
+        {
+            unlockBuckets(t, hash, false);
+        }
+    }
+
+    /**
+     * @see java.util.Map#containsKey(java.lang.Object)
+     * @param key The key.
+     * @return True if present, else false.
+     */
+    public boolean containsKey(Object key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * @see java.util.Map#put(java.lang.Object, java.lang.Object)
+     * @param key The key.
+     * @param value The value.
+     * @return The value replaced or null.
+     * @throws IllegalArgumentException If too many keys share the
+     *     key's hash code for it ever to be placed.
+     */
+    public V put(K key, V value)
+    {
+        return putHelper(key, value, false);
+    }
+
+    /**
+     * @see java.util.concurrent.ConcurrentMap#putIfAbsent(Object, Object)
+     * @param key The key.
+     * @param value The value.
+     * @return The current value, or null if the value was added.
+     */
+    public V putIfAbsent(K key, V value)
+    {
+        return putHelper(key, value, true);
+    }
+
+    /**
+     * Inserts or overwrites a key.  If both buckets are full, a
+     * displacement path is found without locks and each move along it
+     * is made under the locks of its two buckets; then the insert is
+     * retried.  If no path exists the table is resized.
+     * @param key The key.
+     * @param value The value.
+     * @param onlyIfAbsent True to keep an existing value.
+     * @return The previous value or null.
+     * @throws IllegalArgumentException If too many keys share the
+     *     key's hash for it ever to be placed.
+     */
+    @SuppressWarnings("unchecked")
+    private V putHelper(K key, V value, boolean onlyIfAbsent)
+    {
+        if (key == null || value == null)
+        {
+            throw new NullPointerException();
+        }
+        long hash = strategy.hash(key.hashCode());
+        for (;;)
+        {
+            Table t = lockBuckets(hash, true);
+            int b1 = t.h1(hash);
+            int b2 = t.h2(hash);
+            try
+            {
+                int index = t.indexOf(key, hash, b1, b2);
+                if (index >= 0)
+                {
+                    V oldValue = (V) t.values[index];
+                    if (!onlyIfAbsent)
+                    {
+                        t.values[index] = value;
+                    }
+                    return oldValue;
+                }
+                int free = t.freeSlot(b1);
+                if (free < 0)
+                {
+                    free = t.freeSlot(b2);
+                }
+                if (free >= 0)
+                {
+                    t.store(free, key, value, hash);
+                    count.increment();
+                    return null;
+                }
+            }
+            finally
+            {
+                unlockBuckets(t, hash, true);
+            }
+            makeRoom(t, key, hash);
+        }
+    }
+
+    /**
+     * @see java.util.Map#remove(java.lang.Object)
+     * @param key The key.
+     * @return The value that was removed.
+     */
+    public V remove(Object key)
+    {
+        return removeHelper(key, null);
+    }
+
+    /**
+     * @see java.util.concurrent.ConcurrentMap#remove(Object, Object)
+     * @param key The key.
+     * @param value The expected value.
+     * @return True if the entry was removed, else false.
+     */
+    public boolean remove(Object key, Object value)
+    {
+        return value != null && removeHelper(key, value) != null;
+    }
+
+    /**
+     * Removes a key, optionally only if it maps to a given value.
+     * @param key The key.
+     * @param expected The expected value, or null to remove any value.
+     * @return The removed value, or null if nothing was removed.
+     */
+    @SuppressWarnings("unchecked")
+    private V removeHelper(Object key, Object expected)
+    {
+        long hash = strategy.hash(key.hashCode());
+        Table t = lockBuckets(hash, true);
+        try
+        {
+            int index = t.indexOf(key, hash, t.h1(hash), t.h2(hash));
+            if (index < 0
+                    || (expected != null && !expected.equals(t.values[index])))
+            {
+                return null;
+            }
+            V value = (V) t.values[index];
+            t.keys[index] = null;
+            t.values[index] = null;
+            count.decrement();
+            return value;
+        }
+        finally
+        {
+            unlockBuckets(t, hash, true);
+        }
+    }
+
+    /**
+     * @see java.util.concurrent.ConcurrentMap#replace(Object, Object)
+     * @param key The key.
+     * @param value The new value.
+     * @return The previous value, or null if the key was absent.
+     */
+    public V replace(K key, V value)
+    {
+        return replaceHelper(key, null, value);
+    }
+
+    /**
+     * @see java.util.concurrent.ConcurrentMap#replace(Object, Object,
+     *     Object)
+     * @param key The key.
+     * @param oldValue The expected value.
+     * @param newValue The new value.
+     * @return True if the value was replaced, else false.
+     */
+    public boolean replace(K key, V oldValue, V newValue)
+    {
+        if (oldValue == null)
+        {
+            throw new NullPointerException();
+        }
+        return replaceHelper(key, oldValue, newValue) != null;
+    }
+
+    /**
+     * Replaces the value of a present key.
+     * @param key The key.
+     * @param expected The expected value, or null to replace any value.
+     * @param value The new value.
+     * @return The previous value, or null if nothing was replaced.
+     */
+    @SuppressWarnings("unchecked")
+    private V replaceHelper(K key, Object expected, V value)
+    {
+        if (value == null)
+        {
+            throw new NullPointerException();
+        }
+        long hash = strategy.hash(key.hashCode());
+        Table t = lockBuckets(hash, true);
+        try
+        {
+            int index = t.indexOf(key, hash, t.h1(hash), t.h2(hash));
+            if (index < 0
+                    || (expected != null && !expected.equals(t.values[index])))
+            {
+                return null;
+            }
+            V oldValue = (V) t.values[index];
+            t.values[index] = value;
+            return oldValue;
+        }
+        finally
+        {
+            unlockBuckets(t, hash, true);
+        }
+    }
+
+    /**
+     * @see java.util.Map#clear()
+     */
+    public void clear()
+    {
+        lockAll();
+        try
+        {
+            Table t = table;
+            Arrays.fill(t.keys, null);
+            Arrays.fill(t.values, null);
+            count.reset();
+        }
+        finally
+        {
+            unlockAll();
+        }
+    }
+
+    /**
+     * @see java.util.Map#entrySet()
+     * @return Set of entries.
+     */
+    public Set<Map.Entry<K, V>> entrySet()
+    {
+        Set<Map.Entry<K, V>> set = entrySet;
+        if (set != null)
+        {
+            return set;
+        }
+        entrySet = new EntrySet();
+        return entrySet;
+    }
+
+    /**
+     * Frees a slot in one of a key's buckets by moving entries along
+     * the shortest displacement path, or resizes if there is none.  The
+     * path is found without locks, so each move is checked again under
+     * its locks; a stale path is simply abandoned.
+     * @param t The table the buckets belong to.
+     * @param key The key to make room for.
+     * @param hash The mixed hash of the key.
+     */
+    private void makeRoom(Table t, Object key, long hash)
+    {
+        PathSearch search = searches.get();
+        search.target = t;
+        int length = search.search(t.h1(hash), t.h2(hash));
+        search.target = null;
+        if (length < 0)
+        {
+            resize(t, key, hash);
+            return;
+        }
+        for (int i = length - 1; i > 0; i--)
+        {
+            if (!move(t, search.slotAt(i - 1), search.slotAt(i)))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves an entry to an empty slot in its other bucket.
+     * @param t The table.
+     * @param from The slot holding the entry.
+     * @param to The empty slot.
+     * @return True if the move was made, else false.
+     */
+    private boolean move(Table t, int from, int to)
+    {
+        int s1 = stripe(from / slots);
+        int s2 = stripe(to / slots);
+        lock(s1, s2, true);
+        try
+        {
+            if (t != table || t.keys[from] == null || t.keys[to] != null)
+            {
+                return false;
+            }
+            long hash = t.hashes[from];
+            int target = to / slots;
+            if (t.h1(hash) != target && t.h2(hash) != target)
+            {
+                return false;
+            }
+            t.store(to, t.keys[from], t.values[from], t.hashes[from]);
+            t.keys[from] = null;
+            t.values[from] = null;
+            return true;
+        }
+        finally
+        {
+            unlock(s1, s2, true);
+        }
+    }
+
+    /**
+     * Doubles the number of buckets while holding every lock, unless
+     * another thread already replaced the table or inserted the key.
+     * Keys with the same mixed hash share both buckets at every size,
+     * so if they already fill every slot they could use, no resize
+     * would make room and the key is refused instead.
+     * @param expected The table found to be too full.
+     * @param key The key that found no room.
+     * @param hash The mixed hash of the key.
+     * @throws IllegalArgumentException If the key can never be placed.
+     */
+    private void resize(Table expected, Object key, long hash)
+    {
+        lockAll();
+        try
+        {
+            int b1 = expected.h1(hash);
+            int b2 = expected.h2(hash);
+            if (table != expected || expected.indexOf(key, hash, b1, b2) >= 0)
+            {
+                return;
+            }
+            int room = ((int) hash == (int) (hash >>> 32)) ? slots : 2 * slots;
+            int members = expected.countHash(b1, hash);
+            if (b2 != b1)
+            {
+                members += expected.countHash(b2, hash);
+            }
+            if (members >= room)
+            {
+                throw new IllegalArgumentException(
+                    "too many keys with the same hash code");
+            }
+            int numBuckets = expected.buckets * 2;
+            Table bigger = rehash(expected, numBuckets);
+            while (bigger == null)
+            {
+                numBuckets *= 2;
+                bigger = rehash(expected, numBuckets);
+            }
+            table = bigger;
+        }
+        finally
+        {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Copies every entry into a new, unpublished table.
+     * @param old The table to copy.
+     * @param numBuckets The number of buckets of the new table.
+     * @return The new table, or null if some entry could not be placed.
+     */
+    private Table rehash(Table old, int numBuckets)
+    {
+        Table t = new Table(numBuckets);
+        PathSearch search = searches.get();
+        search.target = t;
+        for (int i = 0; i < old.keys.length; i++)
+        {
+            if (old.keys[i] == null)
+            {
+                continue;
+            }
+            long hash = old.hashes[i];
+            int length = search.search(t.h1(hash), t.h2(hash));
+            if (length < 0)
+            {
+                search.target = null;
+                return null;
+            }
+            for (int j = length - 1; j > 0; j--)
+            {
+                int from = search.slotAt(j - 1);
+                t.store(search.slotAt(j), t.keys[from], t.values[from],
+                    t.hashes[from]);
+            }
+            t.store(search.slotAt(0), old.keys[i], old.values[i],
+                old.hashes[i]);
+        }
+        search.target = null;
+        return t;
+    }
+
+    /**
+     * Returns the lock stripe guarding a bucket.
+     * @param bucket The bucket.
+     * @return The index of the stripe.
+     */
+    private int stripe(int bucket)
+    {
+        return bucket & (LOCK_STRIPES - 1);
+    }
+
+    /**
+     * Locks both buckets of a key in the current table, retrying if the
+     * table is replaced before the locks are held.
+     * @param hash The mixed hash of the key.
+     * @param write True for write locks, false for read locks.
+     * @return The table whose buckets are locked.
+     */
+    private Table lockBuckets(long hash, boolean write)
+    {
+        for (;;)
+        {
+            Table t = table;
+            int s1 = stripe(t.h1(hash));
+            int s2 = stripe(t.h2(hash));
+            lock(s1, s2, write);
+            if (t == table)
+            {
+                return t;
+            }
+            unlock(s1, s2, write);
+        }
+    }
+
+    /**
+     * Releases the locks taken by lockBuckets.
+     * @param t The locked table.
+     * @param hash The mixed hash of the key.
+     * @param write True for write locks, false for read locks.
+     */
+    private void unlockBuckets(Table t, long hash, boolean write)
+    {
+        unlock(stripe(t.h1(hash)), stripe(t.h2(hash)), write);
+    }
+
+    /**
+     * Locks two stripes in index order so that writers never deadlock.
+     * @param s1 The first stripe.
+     * @param s2 The second stripe.
+     * @param write True for write locks, false for read locks.
+     */
+    private void lock(int s1, int s2, boolean write)
+    {
+        int lo = Math.min(s1, s2);
+        int hi = Math.max(s1, s2);
+        lockStripe(lo, write);
+        if (hi != lo)
+        {
+            lockStripe(hi, write);
+        }
+    }
+
+    /**
+     * Releases two stripes locked by lock.
+     * @param s1 The first stripe.
+     * @param s2 The second stripe.
+     * @param write True for write locks, false for read locks.
+     */
+    private void unlock(int s1, int s2, boolean write)
+    {
+        unlockStripe(s1, write);
+        if (s2 != s1)
+        {
+            unlockStripe(s2, write);
+        }
+    }
+
+    /**
+     * Locks a single stripe.
+     * @param s The stripe.
+     * @param write True for a write lock, false for a read lock.
+     */
+    private void lockStripe(int s, boolean write)
+    {
+        if (write)
+        {
+            locks[s].asWriteLock().lock();
+        }
+        else
+        {
+            locks[s].asReadLock().lock();
+        }
+    }
+
+    /**
+     * Unlocks a single stripe.
+     * @param s The stripe.
+     * @param write True for a write lock, false for a read lock.
+     */
+    private void unlockStripe(int s, boolean write)
+    {
+        if (write)
+        {
+            locks[s].asWriteLock().unlock();
+        }
+        else
+        {
+            locks[s].asReadLock().unlock();
+        }
+    }
+
+    /**
+     * Write-locks every stripe in index order.
+     */
+    private void lockAll()
+    {
+        for (int i = 0; i < locks.length; i++)
+        {
+            locks[i].asWriteLock().lock();
+        }
+    }
+
+    /**
+     * Releases every stripe.
+     */
+    private void unlockAll()
+    {
+        for (int i = locks.length - 1; i >= 0; i--)
+        {
+            locks[i].asWriteLock().unlock();
+        }
+    }
+
+    /**
+     * Slot arrays of one generation of the table.  Slots of bucket b
+     * occupy the indices b * slots through (b + 1) * slots - 1.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class Table
+    {
+        /** Keys by slot, null where the slot is empty */
+        final Object[] keys;
+        /** Values by slot */
+        final Object[] values;
+        /** Mixed hashes of the keys by slot */
+        final long[] hashes;
+        /** Number of buckets */
+        final int buckets;
+
+        /**
+         * Creates an empty table.
+         * @param numBuckets The number of buckets.
+         */
+        Table(int numBuckets)
+        {
+            buckets = numBuckets;
+            keys = new Object[numBuckets * slots];
+            values = new Object[numBuckets * slots];
+            hashes = new long[numBuckets * slots];
+        }
+
+        /**
+         * First hash function.
+         * @param hash The mixed hash of the key.
+         * @return The index of bucket.
+         */
+        int h1(long hash)
+        {
+            return (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32);
+        }
+
+        /**
+         * Second hash function.
+         * @param hash The mixed hash of the key.
+         * @return The index of bucket.
+         */
+        int h2(long hash)
+        {
+            return (int) (((hash >>> 32) * buckets) >>> 32);
+        }
+
+        /**
+         * Finds the slot holding a key in either of two buckets.
+         * @param key The key.
+         * @param hash The mixed hash of the key.
+         * @param b1 The first bucket.
+         * @param b2 The second bucket.
+         * @return The index of the slot, or -1 if absent.
+         */
+        int indexOf(Object key, long hash, int b1, int b2)
+        {
+            int index = indexInBucket(b1, key, hash);
+            return (index < 0) ? indexInBucket(b2, key, hash) : index;
+        }
+
+        /**
+         * Finds the slot holding a key within a single bucket, reading
+         * a key only where the stored hash matches.
+         * @param bucket The bucket.
+         * @param key The key.
+         * @param hash The mixed hash of the key.
+         * @return The index of the slot, or -1 if absent.
+         */
+        private int indexInBucket(int bucket, Object key, long hash)
+        {
+            int start = bucket * slots;
+            for (int i = start; i < start + slots; i++)
+            {
+                if (hashes[i] == hash && key.equals(keys[i]))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Counts the entries with a given mixed hash within a bucket.
+         * @param bucket The bucket.
+         * @param hash The mixed hash.
+         * @return The number of entries.
+         */
+        int countHash(int bucket, long hash)
+        {
+            int n = 0;
+            int start = bucket * slots;
+            for (int i = start; i < start + slots; i++)
+            {
+                if (keys[i] != null && hashes[i] == hash)
+                {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        /**
+         * Finds an empty slot within a bucket.
+         * @param bucket The bucket.
+         * @return The index of the slot, or -1 if the bucket is full.
+         */
+        int freeSlot(int bucket)
+        {
+            int start = bucket * slots;
+            for (int i = start; i < start + slots; i++)
+            {
+                if (keys[i] == null)
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Writes an entry into a slot.
+         * @param index The index of the slot.
+         * @param key The key.
+         * @param value The value.
+         * @param hash The mixed hash of the key.
+         */
+        void store(int index, Object key, Object value, long hash)
+        {
+            hashes[index] = hash;
+            values[index] = value;
+            keys[index] = key;
+        }
+    }
+
+    /**
+     * Per-thread path search over a given table.  Reads made while
+     * searching are unlocked, so the path may be stale by the time it
+     * is used.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class PathSearch extends CuckooPathSearch
+    {
+        /** The table being searched */
+        Table target;
+
+        /**
+         * Creates a search for this map's bucket size.
+         */
+        PathSearch()
+        {
+            super(slots, DEFAULT_MAX_PATH);
+        }
+
+        /**
+         * @see CuckooPathSearch#isFree(int)
+         * @param slot The index of the slot.
+         * @return True if empty, else false.
+         */
+        boolean isFree(int slot)
+        {
+            return target.keys[slot] == null;
+        }
+
+        /**
+         * @see CuckooPathSearch#alternateBucket(int)
+         * @param slot The index of an occupied slot.
+         * @return The other bucket of the entry.
+         */
+        int alternateBucket(int slot)
+        {
+            long hash = target.hashes[slot];
+            int b1 = target.h1(hash);
+            return (b1 == slot / slots) ? target.h2(hash) : b1;
+        }
+    }
+
+    /**
+     * Weakly consistent iterator that copies one bucket at a time
+     * under its stripe's read lock.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>>
+    {
+        /** The table being iterated */
+        private final Table t;
+        /** The next bucket to copy */
+        private int bucket;
+        /** Keys of the current bucket */
+        private final Object[] bucketKeys;
+        /** Values of the current bucket */
+        private final Object[] bucketValues;
+        /** Number of entries copied from the current bucket */
+        private int filled;
+        /** Position within the copied entries */
+        private int position;
+        /** Key of the entry last returned */
+        private K lastKey;
+
+        /**
+         * Constructor for iterator.
+         */
+        EntryIterator()
+        {
+            t = table;
+            bucketKeys = new Object[slots];
+            bucketValues = new Object[slots];
+            advance();
+        }
+
+        /**
+         * Copies buckets until one with entries is found.
+         */
+        private void advance()
+        {
+            position = 0;
+            filled = 0;
+            while (filled == 0 && bucket < t.buckets)
+            {
+                StampedLock lock = locks[stripe(bucket)];
+                long stamp = lock.readLock();
+                try
+                {
+                    int start = bucket * slots;
+                    for (int i = start; i < start + slots; i++)
+                    {
+                        if (t.keys[i] != null)
+                        {
+                            bucketKeys[filled] = t.keys[i];
+                            bucketValues[filled] = t.values[i];
+                            filled++;
+                        }
+                    }
+                }
+                finally
+                {
+                    lock.unlockRead(stamp);
+                }
+                bucket++;
+            }
+        }
+
+        /**
+         * @see java.util.Iterator#hasNext()
+         * @return True if next exists, else false.
+         */
+        public boolean hasNext()
+        {
+            return position < filled;
+        }
+
+        /**
+         * @see java.util.Iterator#next()
+         * @return Next entry.
+         */
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next()
+        {
+            if (position >= filled)
+            {
+                throw new NoSuchElementException();
+            }
+            K key = (K) bucketKeys[position];
+            V value = (V) bucketValues[position];
+            position++;
+            if (position == filled)
+            {
+                advance();
+            }
+            lastKey = key;
+            return new WriteThroughEntry(key, value);
+        }
+
+        /**
+         * @see java.util.Iterator#remove()
+         */
+        public void remove()
+        {
+            if (lastKey == null)
+            {
+                throw new IllegalStateException();
+            }
+            ConcurrentCuckooHashMap.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+
+    /**
+     * Entry returned by iterators; setting its value puts into the map.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V>
+    {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Creates an entry.
+         * @param key The key.
+         * @param value The value.
+         */
+        WriteThroughEntry(K key, V value)
+        {
+            super(key, value);
+        }
+
+        /**
+         * @see java.util.Map.Entry#setValue(java.lang.Object)
+         * @param value The new value.
+         * @return The previous value of this entry.
+         */
+        public V setValue(V value)
+        {
+            V oldValue = super.setValue(value);
+            put(getKey(), value);
+            return oldValue;
+        }
+    }
+
+    /**
+     * Inner class for Entry set view.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>>
+    {
+        /**
+         * @see java.util.AbstractCollection#iterator()
+         * @return Iterator over entries.
+         */
+        public Iterator<Map.Entry<K, V>> iterator()
+        {
+            return new EntryIterator();
+        }
+
+        /**
+         * @see java.util.AbstractCollection#size()
+         * @return The current size.
+         */
+        public int size()
+        {
+            return ConcurrentCuckooHashMap.this.size();
+        }
+
+        /**
+         * @see java.util.AbstractCollection#contains(java.lang.Object)
+         * @param o The object.
+         * @return True if present, else false.
+         */
+        public boolean contains(Object o)
+        {
+            if (!(o instanceof Map.Entry<?, ?>))
+            {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object value = get(e.getKey());
+            return value != null && value.equals(e.getValue());
+        }
+
+        /**
+         * @see java.util.AbstractCollection#remove(java.lang.Object)
+         * @param o The object.
+         * @return True if removed, else false.
+         */
+        public boolean remove(Object o)
+        {
+            if (!(o instanceof Map.Entry<?, ?>))
+            {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return ConcurrentCuckooHashMap.this.remove(e.getKey(),
+                e.getValue());
+        }
+
+        /**
+         * @see java.util.AbstractCollection#clear()
+         */
+        public void clear()
+        {
+            ConcurrentCuckooHashMap.this.clear();
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package cuckoohashmap;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded cache on a cuckoo table that never grows.  It holds at most
+ * a fixed number of entries; once full, or when the displacement
+ * search finds no path for a new key, an entry is evicted to make room
+ * instead of the table being resized.
+ * <p>
+ * Eviction follows the CLOCK policy.  Every slot has a reference bit,
+ * set when its entry is read by get or overwritten by put.  New
+ * entries start unreferenced, so a burst of keys used only once
+ * cannot flush entries that are read again and again.  A victim is
+ * chosen among the entries of the new key's own two buckets, so the
+ * key can take its slot without moving anything: the first
+ * unreferenced entry from a rotating start is evicted, and if every
+ * candidate is referenced, all their bits are cleared and the first
+ * one goes.  Each insert therefore evicts at most one entry after
+ * looking at no more than two buckets.  Only when a full cache has
+ * nothing at all in the new key's buckets does a hand sweep the whole
+ * table, as in classic CLOCK, which is rare and amortised constant
+ * time.
+ * <p>
+ * Hits, misses, evictions and displacements are counted in stats().
+ * A listener may be told about each evicted entry; it is not called
+ * for entries that are removed or replaced.  Like CuckooHashMap, the
+ * cache is not thread-safe.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ * @param <K> Class variable for keys.
+ * @param <V> Class variable for values.
+ */
+public class CuckooCache<K, V>
+{
+    /** Default number of entries held by each bucket. */
+    private static final int DEFAULT_SLOTS = 4;
+    /** Default limit on entries moved by a single insert. */
+    private static final int DEFAULT_MAX_PATH = 5;
+    /** Fraction of slots the table is sized to fill when full. */
+    private static final double LOAD = 0.9;
+
+    private final Object[] keys;
+    private final Object[] values;
+    private final long[] hashes;
+    private final boolean[] referenced;
+    private final int buckets;
+    private final int slots;
+    private final int maxSize;
+    private int size;
+    private int hand;
+    private int start;
+    private final HashStrategy strategy;
+    private final PathSearch search;
+    private final CuckooStats stats;
+    private BiConsumer<? super K, ? super V> listener;
+
+    /**
+     * Creates a cache.
+     * @param maximumSize The most entries the cache holds.
+     */
+    public CuckooCache(int maximumSize)
+    {
+        this(maximumSize, DEFAULT_SLOTS, new MurmurHashStrategy());
+    }
+
+    /**
+     * Creates a cache with set-associative buckets and a custom hash
+     * family.
+     * @param maximumSize The most entries the cache holds.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @param hashStrategy Mixes key hash codes into bucket choices.
+     */
+    public CuckooCache(int maximumSize, int slotsPerBucket,
+            HashStrategy hashStrategy)
+    {
+        if (maximumSize < 1 || slotsPerBucket < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+        long count = (long) Math.ceil(maximumSize / (slotsPerBucket * LOAD));
+        if (count * slotsPerBucket > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalArgumentException("cache too large");
+        }
+        buckets = (int) count;
+        slots = slotsPerBucket;
+        maxSize = maximumSize;
+        keys = new Object[buckets * slots];
+        values = new Object[buckets * slots];
+        hashes = new long[buckets * slots];
+        referenced = new boolean[buckets * slots];
+        strategy = hashStrategy;
+        search = new PathSearch();
+        stats = new CuckooStats(this::size, () -> keys.length, () -> 0,
+            () -> 0);
+    }
+
+    /**
+     * Sets the listener told about each evicted entry.
+     * @param evictionListener Accepts the key and value of each evicted
+     *     entry, or null for none.
+     */
+    public void setEvictionListener(
+            BiConsumer<? super K, ? super V> evictionListener)
+    {
+        listener = evictionListener;
+    }
+
+    /**
+     * Returns the statistics of this cache.  Hits, misses and evictions
+     * are always counted.
+     * @return The statistics.
+     */
+    public CuckooStats stats()
+    {
+        return stats;
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return The size of the cache.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns whether the cache is empty.
+     * @return True if empty, else false.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the most entries the cache holds.
+     * @return The maximum size.
+     */
+    public int maxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Returns the value of a key and marks it recently used.
+     * @param key The key.
+     * @return The value, or null if absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key)
+    {
+        int index = indexOf(key, strategy.hash(key.hashCode()));
+        stats.recordLookup(index >= 0);
+        if (index < 0)
+        {
+            return null;
+        }
+        referenced[index] = true;
+        return (V) values[index];
+    }
+
+    /**
+     * Returns whether a key is present, without marking it used or
+     * counting a lookup.
+     * @param key The key.
+     * @return True if present, else false.
+     */
+    public boolean containsKey(K key)
+    {
+        return indexOf(key, strategy.hash(key.hashCode())) >= 0;
+    }
+
+    /**
+     * Maps a key to a value, evicting another entry if there is no room.
+     * @param key The key.
+     * @param value The value.
+     * @return The value replaced, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value)
+    {
+        long hash = strategy.hash(key.hashCode());
+        int index = indexOf(key, hash);
+        if (index >= 0)
+        {
+            V oldValue = (V) values[index];
+            values[index] = value;
+            referenced[index] = true;
+            return oldValue;
+        }
+        insert(key, value, hash);
+        return null;
+    }
+
+    /**
+     * Removes a key.
+     * @param key The key.
+     * @return The value that was removed, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(K key)
+    {
+        int index = indexOf(key, strategy.hash(key.hashCode()));
+        if (index < 0)
+        {
+            return null;
+        }
+        V oldValue = (V) values[index];
+        clearSlot(index);
+        size--;
+        return oldValue;
+    }
+
+    /**
+     * Removes every entry without telling the eviction listener.
+     */
+    public void clear()
+    {
+        Arrays.fill(keys, null);
+        Arrays.fill(values, null);
+        Arrays.fill(referenced, false);
+        size = 0;
+    }
+
+    /**
+     * Places a new key, displacing entries along a path while there is
+     * room and evicting an entry when there is not.
+     * @param key The key.
+     * @param value The value.
+     * @param hash The mixed hash of the key.
+     */
+    private void insert(Object key, Object value, long hash)
+    {
+        int b1 = h1(hash);
+        int b2 = h2(hash);
+        int slot = -1;
+        if (size < maxSize)
+        {
+            int length = search.search(b1, b2);
+            if (length >= 0)
+            {
+                for (int i = length - 1; i > 0; i--)
+                {
+                    move(search.slotAt(i - 1), search.slotAt(i));
+                }
+                slot = search.slotAt(0);
+                stats.recordDisplacements(length - 1);
+                size++;
+            }
+        }
+        if (slot < 0)
+        {
+            slot = victim(b1, b2);
+            if (slot < 0)
+            {
+                evict(sweep());
+                slot = freeSlot(b1, b2);
+            }
+            else
+            {
+                evict(slot);
+            }
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        hashes[slot] = hash;
+    }
+
+    /**
+     * Chooses an entry of a key's buckets to evict: the first
+     * unreferenced one from a rotating start, or, if all are
+     * referenced, the first one after clearing every bit.
+     * @param b1 The first bucket of the key.
+     * @param b2 The second bucket of the key.
+     * @return The slot of the victim, or -1 if both buckets are empty.
+     */
+    private int victim(int b1, int b2)
+    {
+        int candidates = 2 * slots;
+        int first = -1;
+        start = (start + 1) % candidates;
+        for (int n = 0; n < candidates; n++)
+        {
+            int i = (start + n) % candidates;
+            int slot = (i < slots) ? b1 * slots + i : b2 * slots + i - slots;
+            if (keys[slot] == null)
+            {
+                continue;
+            }
+            if (!referenced[slot])
+            {
+                return slot;
+            }
+            if (first < 0)
+            {
+                first = slot;
+            }
+        }
+        if (first >= 0)
+        {
+            for (int i = b1 * slots; i < (b1 + 1) * slots; i++)
+            {
+                referenced[i] = false;
+            }
+            for (int i = b2 * slots; i < (b2 + 1) * slots; i++)
+            {
+                referenced[i] = false;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Advances the clock hand over the whole table to the next entry
+     * whose reference bit is clear, clearing the bits it passes.
+     * @return The slot of the victim.
+     */
+    private int sweep()
+    {
+        while (true)
+        {
+            int slot = hand;
+            hand = (hand + 1) % keys.length;
+            if (keys[slot] != null)
+            {
+                if (!referenced[slot])
+                {
+                    return slot;
+                }
+                referenced[slot] = false;
+            }
+        }
+    }
+
+    /**
+     * Finds an empty slot in a key's buckets.
+     * @param b1 The first bucket of the key.
+     * @param b2 The second bucket of the key.
+     * @return The index of the slot.
+     */
+    private int freeSlot(int b1, int b2)
+    {
+        int slot = b1 * slots;
+        while (keys[slot] != null)
+        {
+            slot = (slot + 1 == (b1 + 1) * slots) ? b2 * slots : slot + 1;
+        }
+        return slot;
+    }
+
+    /**
+     * Drops the entry in a slot and tells the listener.  The new entry
+     * takes its place, so the size is unchanged.
+     * @param slot The index of the slot.
+     */
+    @SuppressWarnings("unchecked")
+    private void evict(int slot)
+    {
+        K key = (K) keys[slot];
+        V value = (V) values[slot];
+        clearSlot(slot);
+        stats.recordEviction();
+        if (listener != null)
+        {
+            listener.accept(key, value);
+        }
+    }
+
+    /**
+     * Empties a slot.
+     * @param slot The index of the slot.
+     */
+    private void clearSlot(int slot)
+    {
+        keys[slot] = null;
+        values[slot] = null;
+        referenced[slot] = false;
+    }
+
+    /**
+     * Moves an entry and its reference bit to another slot.
+     * @param from The index of the occupied slot.
+     * @param to The index of the empty slot.
+     */
+    private void move(int from, int to)
+    {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        hashes[to] = hashes[from];
+        referenced[to] = referenced[from];
+        clearSlot(from);
+    }
+
+    /**
+     * Finds the slot holding a key.
+     * @param key The key.
+     * @param hash The mixed hash of the key.
+     * @return The index of the slot, or -1 if absent.
+     */
+    private int indexOf(Object key, long hash)
+    {
+        int index = indexInBucket(h1(hash), key, hash);
+        return (index >= 0) ? index : indexInBucket(h2(hash), key, hash);
+    }
+
+    /**
+     * Finds the slot of a bucket holding a key.
+     * @param bucket The bucket.
+     * @param key The key.
+     * @param hash The mixed hash of the key.
+     * @return The index of the slot, or -1 if absent.
+     */
+    private int indexInBucket(int bucket, Object key, long hash)
+    {
+        int first = bucket * slots;
+        for (int i = first; i < first + slots; i++)
+        {
+            if (hashes[i] == hash && key.equals(keys[i]))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * First hash function.
+     * @param hash The mixed hash of the key.
+     * @return The index of bucket.
+     */
+    private int h1(long hash)
+    {
+        return (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32);
+    }
+
+    /**
+     * Second hash function.
+     * @param hash The mixed hash of the key.
+     * @return The index of bucket.
+     */
+    private int h2(long hash)
+    {
+        return (int) (((hash >>> 32) * buckets) >>> 32);
+    }
+
+    /**
+     * Path search over the cache's table.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class PathSearch extends CuckooPathSearch
+    {
+        /**
+         * Creates a search for this cache's bucket size.
+         */
+        PathSearch()
+        {
+            super(slots, DEFAULT_MAX_PATH);
+        }
+
+        /**
+         * @see CuckooPathSearch#isFree(int)
+         * @param slot The index of the slot.
+         * @return True if empty, else false.
+         */
+        boolean isFree(int slot)
+        {
+            return keys[slot] == null;
+        }
+
+        /**
+         * @see CuckooPathSearch#alternateBucket(int)
+         * @param slot The index of an occupied slot.
+         * @return The other bucket of the entry.
+         */
+        int alternateBucket(int slot)
+        {
+            long hash = hashes[slot];
+            int b1 = h1(hash);
+            return (b1 == slot / slots) ? h2(hash) : b1;
+        }
+    }
+}
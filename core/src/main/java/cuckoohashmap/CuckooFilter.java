@@ -0,0 +1,326 @@
+package cuckoohashmap;
+
+import java.util.Collection;
+
+/**
+ * Cuckoo filter: a membership test that, unlike a Bloom filter, can
+ * forget keys.  Each key is reduced to a small fingerprint stored in
+ * one of two buckets, placed with the same breadth-first displacement
+ * search as CuckooHashMap.  mightContain never answers false for a
+ * key that was added and not removed, and answers true for other keys
+ * with roughly the configured false positive rate.
+ * <p>
+ * The original keys are not kept, so an entry cannot be rehashed when
+ * it is displaced.  Partial-key cuckoo hashing solves this: a key's
+ * second bucket is its first bucket xored with a hash of its
+ * fingerprint, so either bucket can be computed from the other and
+ * the fingerprint alone.  This needs a power-of-two number of buckets.
+ * Fingerprints are 8 bits when the rate allows, for about one byte
+ * per key, and otherwise up to 16 bits.  The filter does not grow;
+ * add reports when it is full, and a filter too large for one array
+ * is refused when created rather than silently made smaller.
+ * <p>
+ * Adding a key twice stores two fingerprints, and a key should only be
+ * removed if it was added, or the fingerprint of another key sharing a
+ * bucket may be removed instead.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ * @param <K> Class variable for keys.
+ */
+public class CuckooFilter<K>
+{
+    /** Number of fingerprints held by each bucket. */
+    private static final int SLOTS = 4;
+    /** Limit on fingerprints moved by a single add. */
+    private static final int MAX_PATH = 5;
+    /** Fraction of slots a filter is sized to fill. */
+    private static final double LOAD = 0.9;
+    /** Largest supported fingerprint. */
+    private static final int MAX_BITS = 16;
+
+    private final HashStrategy strategy;
+    private final int bits;
+    private final int bytesPerSlot;
+    private final int mask;
+    private final byte[] table;
+    private final PathSearch search;
+    private int size;
+
+    /**
+     * Creates a filter for a number of keys and a false positive rate.
+     * @param expectedKeys The number of keys the filter must hold.
+     * @param falsePositiveRate The acceptable chance that mightContain
+     *     answers true for a key that was not added.
+     */
+    public CuckooFilter(int expectedKeys, double falsePositiveRate)
+    {
+        this(expectedKeys, falsePositiveRate, new MurmurHashStrategy());
+    }
+
+    /**
+     * Creates a filter with a custom hash family.
+     * @param expectedKeys The number of keys the filter must hold.
+     * @param falsePositiveRate The acceptable chance that mightContain
+     *     answers true for a key that was not added.
+     * @param hashStrategy Mixes key hash codes.
+     */
+    public CuckooFilter(int expectedKeys, double falsePositiveRate,
+            HashStrategy hashStrategy)
+    {
+        if (expectedKeys < 0 || !(falsePositiveRate > 0
+                && falsePositiveRate < 1))
+        {
+            throw new IllegalArgumentException();
+        }
+        // A lookup compares 2 * SLOTS fingerprints, each matching with
+        // chance 2^-bits.
+        int needed = (int) Math.ceil(Math.log(2 * SLOTS / falsePositiveRate)
+            / Math.log(2));
+        if (needed > MAX_BITS)
+        {
+            throw new IllegalArgumentException(
+                "false positive rate too small");
+        }
+        bits = Math.max(needed, 1);
+        bytesPerSlot = (bits <= Byte.SIZE) ? 1 : 2;
+        long buckets = Math.max(1,
+            (long) Math.ceil(expectedKeys / (SLOTS * LOAD)));
+        long count = Long.highestOneBit(buckets);
+        if (count < buckets)
+        {
+            count <<= 1;
+        }
+        if (count * SLOTS * bytesPerSlot > Integer.MAX_VALUE - 8)
+        {
+            throw new IllegalArgumentException("filter too large");
+        }
+        mask = (int) count - 1;
+        table = new byte[(int) count * SLOTS * bytesPerSlot];
+        strategy = hashStrategy;
+        search = new PathSearch();
+    }
+
+    /**
+     * Creates a filter holding a collection of keys, such as the key
+     * set of a map.
+     * @param keys The keys.
+     * @param falsePositiveRate The acceptable chance that mightContain
+     *     answers true for a key that was not added.
+     * @param <K> Class variable for keys.
+     * @return The filter.
+     */
+    public static <K> CuckooFilter<K> fromKeys(Collection<? extends K> keys,
+            double falsePositiveRate)
+    {
+        CuckooFilter<K> filter = new CuckooFilter<K>(keys.size(),
+            falsePositiveRate);
+        for (K key : keys)
+        {
+            if (!filter.add(key))
+            {
+                throw new IllegalStateException("filter full");
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * Returns the number of fingerprints stored.
+     * @return The size of the filter.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the number of bits in each fingerprint.
+     * @return The fingerprint width.
+     */
+    public int fingerprintBits()
+    {
+        return bits;
+    }
+
+    /**
+     * Returns the memory taken by the fingerprints.
+     * @return The size of the table in bytes.
+     */
+    public long sizeInBytes()
+    {
+        return table.length;
+    }
+
+    /**
+     * Adds a key.
+     * @param key The key.
+     * @return True if added, false if the filter is full.
+     */
+    public boolean add(K key)
+    {
+        long hash = strategy.hash(key.hashCode());
+        int fp = fingerprint(hash);
+        int b1 = (int) hash & mask;
+        int length = search.search(b1, alternate(b1, fp));
+        if (length < 0)
+        {
+            return false;
+        }
+        for (int i = length - 1; i > 0; i--)
+        {
+            set(search.slotAt(i), get(search.slotAt(i - 1)));
+        }
+        set(search.slotAt(0), fp);
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns whether a key may have been added.
+     * @param key The key.
+     * @return False if the key is certainly absent, else true.
+     */
+    public boolean mightContain(K key)
+    {
+        long hash = strategy.hash(key.hashCode());
+        int fp = fingerprint(hash);
+        int b1 = (int) hash & mask;
+        return indexInBucket(b1, fp) >= 0
+            || indexInBucket(alternate(b1, fp), fp) >= 0;
+    }
+
+    /**
+     * Removes a key that was added.
+     * @param key The key.
+     * @return True if a fingerprint of the key was removed, else false.
+     */
+    public boolean remove(K key)
+    {
+        long hash = strategy.hash(key.hashCode());
+        int fp = fingerprint(hash);
+        int b1 = (int) hash & mask;
+        int slot = indexInBucket(b1, fp);
+        if (slot < 0)
+        {
+            slot = indexInBucket(alternate(b1, fp), fp);
+        }
+        if (slot < 0)
+        {
+            return false;
+        }
+        set(slot, 0);
+        size--;
+        return true;
+    }
+
+    /**
+     * Takes a key's fingerprint from the high half of its hash, which
+     * the first bucket does not use.  Zero marks an empty slot, so it
+     * is never a fingerprint.
+     * @param hash The mixed hash of the key.
+     * @return The fingerprint.
+     */
+    private int fingerprint(long hash)
+    {
+        int fp = (int) (hash >>> 32) & ((1 << bits) - 1);
+        return (fp == 0) ? 1 : fp;
+    }
+
+    /**
+     * Returns the other bucket of a fingerprint.
+     * @param bucket One bucket of the fingerprint.
+     * @param fp The fingerprint.
+     * @return The other bucket.
+     */
+    private int alternate(int bucket, int fp)
+    {
+        return (bucket ^ (fp * 0x5BD1E995)) & mask;
+    }
+
+    /**
+     * Finds a slot of a bucket holding a fingerprint.
+     * @param bucket The bucket.
+     * @param fp The fingerprint.
+     * @return The index of the slot, or -1 if absent.
+     */
+    private int indexInBucket(int bucket, int fp)
+    {
+        int start = bucket * SLOTS;
+        for (int i = start; i < start + SLOTS; i++)
+        {
+            if (get(i) == fp)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the fingerprint in a slot.
+     * @param slot The index of the slot.
+     * @return The fingerprint, or 0 if the slot is empty.
+     */
+    private int get(int slot)
+    {
+        if (bytesPerSlot == 1)
+        {
+            return table[slot] & 0xFF;
+        }
+        int i = slot * 2;
+        return (table[i] & 0xFF) | (table[i + 1] & 0xFF) << 8;
+    }
+
+    /**
+     * Writes the fingerprint in a slot.
+     * @param slot The index of the slot.
+     * @param fp The fingerprint, or 0 to empty the slot.
+     */
+    private void set(int slot, int fp)
+    {
+        if (bytesPerSlot == 1)
+        {
+            table[slot] = (byte) fp;
+            return;
+        }
+        int i = slot * 2;
+        table[i] = (byte) fp;
+        table[i + 1] = (byte) (fp >>> 8);
+    }
+
+    /**
+     * Path search over the fingerprint table.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class PathSearch extends CuckooPathSearch
+    {
+        /**
+         * Creates a search for the filter's buckets.
+         */
+        PathSearch()
+        {
+            super(SLOTS, MAX_PATH);
+        }
+
+        /**
+         * @see CuckooPathSearch#isFree(int)
+         * @param slot The index of the slot.
+         * @return True if empty, else false.
+         */
+        boolean isFree(int slot)
+        {
+            return get(slot) == 0;
+        }
+
+        /**
+         * @see CuckooPathSearch#alternateBucket(int)
+         * @param slot The index of an occupied slot.
+         * @return The other bucket of the fingerprint.
+         */
+        int alternateBucket(int slot)
+        {
+            return alternate(slot / SLOTS, get(slot));
+        }
+    }
+}
@@ -0,0 +1,2941 @@
+package cuckoohashmap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cuckoo hash map implementation.
+ * @author Patrick Parker
+ * @version Nov 27, 2016
+ * @param <K> Class variable for keys.
+ * @param <V> Class variable for values.
+ */
+public class CuckooHashMap<K, V> implements Map<K, V>
+{
+    /** Default number of entries held by each bucket. */
+    private static final int DEFAULT_SLOTS = 4;
+    /** Default limit on entries moved by a single insert. */
+    private static final int DEFAULT_MAX_PATH = 5;
+    /** Number of overflow slots kept after the buckets. */
+    private static final int STASH_SIZE = 4;
+    /** Buckets moved from the old table by each put or remove. */
+    private static final int MIGRATION_STEP = 8;
+    /** Load a presized table is sized for when buckets hold 2+ slots. */
+    private static final double PRESIZE_LOAD = 0.85;
+    /** Load a presized table is sized for with one slot per bucket. */
+    private static final double PRESIZE_LOAD_SINGLE = 0.45;
+    /** Bucket ranges handed out per worker by bulkLoad. */
+    private static final int PARTITIONS_PER_WORKER = 4;
+    /** Entries hashed by one bulkLoad task. */
+    private static final int HASH_GRAIN = 4096;
+    /** Keys whose buckets getAll loads before probing any of them. */
+    private static final int PROBE_GROUP = 16;
+    
+    private Table table;
+    private Table oldTable;
+    private int migrated;
+    private boolean incremental;
+    private int size;    
+    private int slots;
+    private double loadFactor;
+    private int minBuckets;
+    private boolean autoShrink;
+    private int modCount;
+    private final HashStrategy strategy;
+    private PathSearch search;
+    private CuckooWriteAheadLog<K, V> log;
+    private CuckooStats stats;
+    private CuckooStats recorder;
+    private long migrationNanos = -1;
+    private CuckooHashMap<Object, Integer> valueIndex;
+    private int nullValues;
+    private TimerWheel wheel;
+    private LongSupplier clock = System::nanoTime;
+    private long now;
+    private Set<java.util.Map.Entry<K, V>> entrySet = null;
+    private Set<K> keys = null;
+    private Collection<V> values = null;
+    
+    
+    /**
+     * Constructor for cuckoo hash map.
+     * @param numBuckets The number of buckets.
+     */
+    public CuckooHashMap(int numBuckets)
+    {
+        this(numBuckets, DEFAULT_SLOTS);
+    }
+    
+    /**
+     * Constructor for cuckoo hash map with set-associative buckets.
+     * Each key may live in any slot of either of its two buckets, so
+     * entries are only kicked once both buckets are full.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     */
+    public CuckooHashMap(int numBuckets, int slotsPerBucket)
+    {
+        this(numBuckets, slotsPerBucket, new MurmurHashStrategy());
+    }
+    
+    /**
+     * Constructor for cuckoo hash map sized for a number of entries.
+     * The load factor is the occupancy the map aims for whenever it
+     * chooses its own size: here, in ensureCapacity and putAll, and in
+     * trimToSize and automatic shrinking.
+     * @param expectedSize The number of entries to hold without growing.
+     * @param targetLoadFactor The target occupancy, in (0, 1].
+     */
+    public CuckooHashMap(int expectedSize, double targetLoadFactor)
+    {
+        this(bucketsFor(expectedSize, DEFAULT_SLOTS,
+            checkLoad(expectedSize, targetLoadFactor)), DEFAULT_SLOTS);
+        loadFactor = targetLoadFactor;
+    }
+    
+    /**
+     * Validates the arguments of the expected size constructor.
+     * @param expectedSize The number of entries.
+     * @param load The target load factor.
+     * @return The load factor.
+     */
+    private static double checkLoad(int expectedSize, double load)
+    {
+        if (expectedSize < 0 || !(load > 0 && load <= 1))
+        {
+            throw new IllegalArgumentException();
+        }
+        return load;
+    }
+    
+    /**
+     * Constructor for cuckoo hash map with a custom hash family.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @param hashStrategy Mixes key hash codes into bucket choices.
+     */
+    public CuckooHashMap(int numBuckets, int slotsPerBucket,
+            HashStrategy hashStrategy)
+    {
+        if (numBuckets < 1 || slotsPerBucket < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+        size = 0;
+        modCount = 0;
+        slots = slotsPerBucket;
+        loadFactor = (slotsPerBucket == 1) ? PRESIZE_LOAD_SINGLE
+            : PRESIZE_LOAD;
+        minBuckets = numBuckets;
+        strategy = hashStrategy;
+        table = new Table(numBuckets);
+        search = new PathSearch(DEFAULT_MAX_PATH);
+    }
+    
+    /**
+     * Sets how many entries a single insert may displace before the
+     * table is grown instead.
+     * @param maxDisplacements The maximum cuckoo path length.
+     */
+    public void setMaxDisplacements(int maxDisplacements)
+    {
+        search = new PathSearch(maxDisplacements);
+    }
+    
+    /**
+     * Chooses how the table grows.  By default a resize rehashes every
+     * entry at once.  In incremental mode the old table is kept next to
+     * the new one and a few of its buckets are moved on each put and
+     * remove, so no single operation does work proportional to the
+     * size of the map.  Lookups check both tables until the move ends.
+     * @param enabled True for incremental resizing, else false.
+     */
+    public void setIncrementalResize(boolean enabled)
+    {
+        if (!enabled && oldTable != null)
+        {
+            completeMigration();
+        }
+        incremental = enabled;
+    }
+    
+    /**
+     * Chooses whether removes shrink the table.  It is off by default,
+     * so a remove never pays for a resize it was not asked for, and a
+     * map that is filled, drained and filled again keeps its table;
+     * trimToSize shrinks on demand.  When on, a remove that leaves the
+     * map under a quarter of its target load factor shrinks the table
+     * until the load is half the target.  Growing again needs the map
+     * to roughly double, and shrinking again needs it to halve, so a
+     * map hovering near either edge does not resize back and forth.
+     * The map never shrinks on its own below the size it was created
+     * with.
+     * @param enabled True to shrink automatically, else false.
+     */
+    public void setAutoShrink(boolean enabled)
+    {
+        autoShrink = enabled;
+    }
+    
+    /**
+     * Grows the table, if needed, so it holds a number of entries at
+     * the target load factor without resizing along the way.
+     * @param expectedSize The number of entries.
+     */
+    public void ensureCapacity(int expectedSize)
+    {
+        int needed = bucketsFor(expectedSize, slots, loadFactor);
+        if (needed > table.buckets)
+        {
+            resizeTo(needed);
+        }
+    }
+    
+    /**
+     * Shrinks the table to the smallest size that holds the current
+     * entries at the target load factor.  This also becomes the floor
+     * for automatic shrinking.
+     */
+    public void trimToSize()
+    {
+        int needed = bucketsFor(size, slots, loadFactor);
+        minBuckets = Math.min(minBuckets, needed);
+        if (needed < table.buckets)
+        {
+            resizeTo(needed);
+        }
+    }
+    
+    /**
+     * Saves the table to a file that CuckooSnapshot.open can map back
+     * without rehashing.  An incremental resize in progress is finished
+     * first.  The map must use a MurmurHashStrategy or
+     * TabulationHashStrategy.
+     * @param file The destination.
+     * @param keyCodec Encodes the keys.
+     * @param valueCodec Encodes the values.
+     * @throws IOException If the file cannot be written.
+     */
+    public void writeSnapshot(Path file, FixedWidthCodec<K> keyCodec,
+            FixedWidthCodec<V> valueCodec)
+        throws IOException
+    {
+        if (oldTable != null)
+        {
+            completeMigration();
+        }
+        CuckooSnapshot.write(file, table.buckets, slots, strategy,
+            table.keys, table.values, size, keyCodec, valueCodec);
+    }
+    
+    /**
+     * Turns the value index on or off.  While on, the map keeps a count
+     * of each distinct value in a second cuckoo map, so containsValue
+     * is a hash lookup instead of a scan of every slot.  The index costs
+     * roughly one more slot per distinct value plus the work of keeping
+     * it current on every put and remove; stats() reports its size.
+     * Turning it on builds it from the current entries.
+     * @param enabled True to keep the index, else false.
+     */
+    public void setValueIndexEnabled(boolean enabled)
+    {
+        if (!enabled)
+        {
+            valueIndex = null;
+            return;
+        }
+        if (valueIndex != null)
+        {
+            return;
+        }
+        valueIndex = new CuckooHashMap<Object, Integer>(
+            bucketsFor(size, slots), slots);
+        nullValues = 0;
+        forEach(Long.MAX_VALUE, (k, v) -> indexValue(v));
+    }
+    
+    /**
+     * Counts one more occurrence of a value in the value index.
+     * @param value The value.
+     */
+    private void indexValue(Object value)
+    {
+        if (value == null)
+        {
+            nullValues++;
+            return;
+        }
+        Integer count = valueIndex.get(value);
+        valueIndex.put(value, (count == null) ? 1 : count + 1);
+    }
+    
+    /**
+     * Counts one less occurrence of a value in the value index.
+     * @param value The value.
+     */
+    private void unindexValue(Object value)
+    {
+        if (value == null)
+        {
+            nullValues--;
+            return;
+        }
+        Integer count = valueIndex.get(value);
+        if (count == 1)
+        {
+            valueIndex.remove(value);
+        }
+        else
+        {
+            valueIndex.put(value, count - 1);
+        }
+    }
+    
+    /**
+     * Estimates the bytes held by the slot arrays of the tables,
+     * assuming compressed references.
+     * @return The estimate in bytes.
+     */
+    long footprint()
+    {
+        long slotCount = table.keys.length;
+        if (oldTable != null)
+        {
+            slotCount += oldTable.keys.length;
+        }
+        return slotCount * (2 * Integer.BYTES + Long.BYTES);
+    }
+    
+    /**
+     * Turns statistics recording on or off.  It is off by default, so
+     * maps that are not watched pay nothing for it.  Counters keep
+     * their values while recording is off, and an incremental resize
+     * under way when recording is turned on or off is not recorded.
+     * @param enabled True to record, else false.
+     */
+    public void setStatsEnabled(boolean enabled)
+    {
+        recorder = enabled ? stats() : null;
+        migrationNanos = -1;
+    }
+    
+    /**
+     * Returns the statistics of this map.  Occupancy is always current;
+     * the counters only advance while recording is enabled.
+     * @return The statistics.
+     */
+    public CuckooStats stats()
+    {
+        if (stats == null)
+        {
+            stats = new CuckooStats(this::size,
+                () -> table.buckets * slots, () -> table.stashed,
+                () -> (valueIndex == null) ? 0 : valueIndex.footprint());
+        }
+        return stats;
+    }
+    
+    /**
+     * Attaches the log that records this map's mutations.
+     * @param writeAheadLog The log, or null to stop logging.
+     */
+    void setLog(CuckooWriteAheadLog<K, V> writeAheadLog)
+    {
+        log = writeAheadLog;
+    }
+    
+    /**
+     * Replaces the clock that deadlines are measured against.
+     * @param nanoTime Returns the current time in nanoseconds.
+     */
+    void setClock(LongSupplier nanoTime)
+    {
+        clock = nanoTime;
+    }
+    
+    /**
+     * Maps a key to a value that expires after a time to live.  Once
+     * expired, get, containsKey and getAll treat the key as absent.
+     * Expired entries are reclaimed lazily: a put whose displacement
+     * path ends at one reuses its slot, a resize leaves them behind,
+     * and a timer wheel advanced on every put removes them as their
+     * deadlines pass, at constant amortised cost per entry.  Until
+     * reclaimed an expired entry still counts in size() and is seen by
+     * iteration; expire() reclaims everything due at once.  A plain put
+     * of the key clears its deadline.
+     * <p>
+     * Deadlines are kept in memory only.  Snapshots record the entry
+     * without its deadline, and the map of a CuckooWriteAheadLog
+     * rejects this method, since neither an entry's deadline nor its
+     * silent expiry would survive recovery.
+     * @param key The key.
+     * @param value The value.
+     * @param ttl How long the entry lives; must be positive.
+     * @param unit The unit of ttl.
+     * @return The value replaced, or null if the key was absent.
+     * @throws UnsupportedOperationException If the map is logged.
+     * @throws IllegalArgumentException If too many keys share the
+     *     key's hash code for it ever to be placed.
+     */
+    public V put(K key, V value, long ttl, TimeUnit unit)
+    {
+        if (ttl <= 0)
+        {
+            throw new IllegalArgumentException();
+        }
+        if (log != null)
+        {
+            throw new UnsupportedOperationException(
+                "time to live on a logged map");
+        }
+        if (wheel == null)
+        {
+            wheel = new TimerWheel(clock.getAsLong());
+            table.deadlines = new long[table.keys.length];
+            if (oldTable != null)
+            {
+                oldTable.deadlines = new long[oldTable.keys.length];
+            }
+        }
+        long deadline = clock.getAsLong() + unit.toNanos(ttl);
+        return putEntry(key, value, (deadline == 0) ? 1 : deadline);
+    }
+    
+    /**
+     * Removes every entry whose time to live has passed.
+     */
+    public void expire()
+    {
+        if (wheel != null)
+        {
+            now = clock.getAsLong();
+            wheel.advance(now, this::expireKey);
+        }
+    }
+    
+    /**
+     * Removes a key whose timer fired, unless its entry has since been
+     * removed or given another deadline.
+     * @param key The key.
+     * @param deadline The deadline of the timer.
+     */
+    private void expireKey(Object key, long deadline)
+    {
+        long hash = strategy.hash(key.hashCode());
+        Table t = table;
+        int index = t.indexOf(key, hash);
+        if (index < 0 && oldTable != null)
+        {
+            t = oldTable;
+            index = t.indexOf(key, hash);
+        }
+        if (index >= 0 && t.deadlines[index] == deadline)
+        {
+            dropExpired(t, index);
+            t.remove(index);
+        }
+    }
+    
+    /**
+     * Returns whether the entry in a slot has outlived its deadline.
+     * @param t The table holding the entry.
+     * @param index The index of the slot.
+     * @param time The current time in nanoseconds.
+     * @return True if expired, else false.
+     */
+    private boolean expired(Table t, int index, long time)
+    {
+        return t.deadlines != null && t.deadlines[index] != 0
+            && t.deadlines[index] - time <= 0;
+    }
+    
+    /**
+     * Returns whether the entry in a slot has expired, reading the clock
+     * only if the entry has a deadline.
+     * @param t The table holding the entry.
+     * @param index The index of the slot.
+     * @return True if expired, else false.
+     */
+    private boolean expiredNow(Table t, int index)
+    {
+        return t.deadlines != null && t.deadlines[index] != 0
+            && expired(t, index, clock.getAsLong());
+    }
+    
+    /**
+     * Accounts for an expired entry that is about to leave its slot.
+     * @param t The table holding the entry.
+     * @param index The index of the slot.
+     */
+    private void dropExpired(Table t, int index)
+    {
+        if (valueIndex != null)
+        {
+            unindexValue(t.values[index]);
+        }
+        size--;
+        modCount++;
+    }
+    
+    /**
+     * Writes an entry straight into a slot of the table, as recorded in
+     * a snapshot with the same buckets and strategy.
+     * @param index The index of the slot.
+     * @param key The key.
+     * @param value The value.
+     * @param code The hash code of the key.
+     */
+    void restore(int index, Object key, Object value, int code)
+    {
+        table.store(index, key, value, strategy.hash(code));
+        if (index >= table.stashStart())
+        {
+            table.stashed++;
+        }
+        size++;
+    }
+    
+    /** 
+     * @see java.util.Map#clear()
+     */
+    public void clear()
+    {
+        if (log != null)
+        {
+            log.clear();
+        }
+        Arrays.fill(table.keys, null);
+        Arrays.fill(table.values, null);
+        Arrays.fill(table.occupied, 0);
+        table.stashed = 0;
+        oldTable = null;
+        recordMigration();
+        if (wheel != null)
+        {
+            wheel.clear();
+        }
+        if (valueIndex != null)
+        {
+            valueIndex.clear();
+            nullValues = 0;
+        }
+        size = 0;
+        modCount = 0;
+        if (log != null)
+        {
+            log.commit();
+        }
+    }
+    
+    /** 
+     * @see java.util.Map#isEmpty()
+     * @return True if empty, else false.
+     */
+    public boolean isEmpty()
+    {        
+        return size == 0;
+    }
+
+    /** 
+     * @see java.util.Map#size()
+     * @return The size of the map.
+     */
+    public int size()
+    {
+        return size;
+    }
+    
+    /** 
+     * @see java.util.Map#get(java.lang.Object)
+     * @param key The key.
+     * @return The value.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key)
+    {
+        long hash = strategy.hash(key.hashCode());
+        Table t = table;
+        int index = t.indexOf(key, hash);
+        if (index < 0 && oldTable != null)
+        {
+            t = oldTable;
+            index = t.indexOf(key, hash);
+        }
+        if (index >= 0 && expiredNow(t, index))
+        {
+            index = -1;
+        }
+        if (recorder != null)
+        {
+            recorder.recordLookup(index >= 0);
+        }
+        if (index < 0)
+        {
+            return null;
+        }
+        return (V) t.values[index];
+    }
+    
+    /**
+     * Looks up many keys at once.  Keys are handled in groups: the two
+     * buckets of every key in a group are computed and the first slot
+     * of each is read before any key is compared, so the cache misses
+     * of the whole group are in flight together instead of one after
+     * another.  The values read are used to answer keys that sit in
+     * those first slots; the rest are probed as usual, by which time
+     * their buckets are cached.
+     * @param keys The keys.
+     * @param out Receives the value of each key, or null if absent;
+     *     must be at least as long as keys.
+     * @return The number of keys found.
+     */
+    @SuppressWarnings("unchecked")
+    public int getAll(K[] keys, V[] out)
+    {
+        if (out.length < keys.length)
+        {
+            throw new IllegalArgumentException();
+        }
+        Table t = table;
+        long[] hashes = new long[PROBE_GROUP];
+        int[] first = new int[PROBE_GROUP];
+        int[] second = new int[PROBE_GROUP];
+        long[] firstHashes = new long[PROBE_GROUP];
+        long[] secondHashes = new long[PROBE_GROUP];
+        Object[] firstKeys = new Object[PROBE_GROUP];
+        Object[] secondKeys = new Object[PROBE_GROUP];
+        int found = 0;
+        for (int base = 0; base < keys.length; base += PROBE_GROUP)
+        {
+            int n = Math.min(PROBE_GROUP, keys.length - base);
+            for (int j = 0; j < n; j++)
+            {
+                long hash = strategy.hash(keys[base + j].hashCode());
+                hashes[j] = hash;
+                first[j] = t.h1(hash) * slots;
+                second[j] = t.h2(hash) * slots;
+                firstHashes[j] = t.hashes[first[j]];
+                secondHashes[j] = t.hashes[second[j]];
+                firstKeys[j] = t.keys[first[j]];
+                secondKeys[j] = t.keys[second[j]];
+            }
+            for (int j = 0; j < n; j++)
+            {
+                Object key = keys[base + j];
+                Table holder = t;
+                int index;
+                if (firstHashes[j] == hashes[j]
+                        && key.equals(firstKeys[j]))
+                {
+                    index = first[j];
+                }
+                else if (secondHashes[j] == hashes[j]
+                        && key.equals(secondKeys[j]))
+                {
+                    index = second[j];
+                }
+                else
+                {
+                    index = t.indexOf(key, hashes[j]);
+                    if (index < 0 && oldTable != null)
+                    {
+                        holder = oldTable;
+                        index = holder.indexOf(key, hashes[j]);
+                    }
+                }
+                if (index >= 0 && expiredNow(holder, index))
+                {
+                    index = -1;
+                }
+                if (recorder != null)
+                {
+                    recorder.recordLookup(index >= 0);
+                }
+                if (index < 0)
+                {
+                    out[base + j] = null;
+                }
+                else
+                {
+                    out[base + j] = (V) holder.values[index];
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * Returns entry at index.  Slots of bucket b occupy the indices
+     * b * slotsPerBucket through (b + 1) * slotsPerBucket - 1, and
+     * the stash follows the last bucket.
+     * Entries are not stored as objects, so a new view is created.
+     * @param index The index.
+     * @return The entry, or null if the slot is empty.
+     */
+    public MapEntry getEntry(int index)
+    {
+        return entryAt(table, index);
+    }
+    
+    /**
+     * Creates an entry view of a slot.
+     * @param t The table.
+     * @param index The index of the slot.
+     * @return The entry, or null if the slot is empty.
+     */
+    @SuppressWarnings("unchecked")
+    private MapEntry entryAt(Table t, int index)
+    {
+        if (t.keys[index] == null)
+        {
+            return null;
+        }
+        return new MapEntry((K) t.keys[index], (V) t.values[index]);
+    }
+
+    /** 
+     * @see java.util.Map#containsKey(java.lang.Object)
+     * @param key The key.
+     * @return True if present, else false.
+     */
+    public boolean containsKey(Object key)
+    {
+        long hash = strategy.hash(key.hashCode());
+        Table t = table;
+        int index = t.indexOf(key, hash);
+        if (index < 0 && oldTable != null)
+        {
+            t = oldTable;
+            index = t.indexOf(key, hash);
+        }
+        boolean found = index >= 0 && !expiredNow(t, index);
+        if (recorder != null)
+        {
+            recorder.recordLookup(found);
+        }
+        return found;
+    }
+
+    /** 
+     * @see java.util.Map#containsValue(java.lang.Object)
+     * @param value The value.
+     * @return True if present, else false.
+     */
+    public boolean containsValue(Object value)
+    {
+        if (valueIndex != null)
+        {
+            return (value == null) ? nullValues > 0
+                : valueIndex.containsKey(value);
+        }
+        return table.containsValue(value)
+            || (oldTable != null && oldTable.containsValue(value));
+    }
+
+    /** 
+     * @see java.util.Map#put(java.lang.Object, java.lang.Object)
+     * @param key The key.
+     * @param value The value.
+     * @return The value replaced or null.
+     * @throws IllegalArgumentException If too many keys share the
+     *     key's hash code for it ever to be placed.
+     */
+    public V put(K key, V value)
+    {
+        if (log == null)
+        {
+            return putEntry(key, value, 0);
+        }
+        log.put(key, value);
+        V oldValue = putEntry(key, value, 0);
+        log.commit();
+        return oldValue;
+    }
+    
+    /**
+     * Maps a key to a value with a deadline, first expiring whatever
+     * the timer wheel holds that is due.
+     * @param key The key.
+     * @param value The value.
+     * @param deadline When the entry expires in nanoseconds, or 0 if
+     *     it never does.
+     * @return The value replaced, or null if the key was absent.
+     */
+    private V putEntry(K key, V value, long deadline)
+    {
+        expire();
+        if (oldTable != null)
+        {
+            migrate();
+        }
+        long hash = strategy.hash(key.hashCode());
+        int index = table.indexOf(key, hash);
+        if (index >= 0)
+        {            
+            return putHelper(table, index, value, deadline);
+        }
+        if (oldTable != null)
+        {
+            index = oldTable.indexOf(key, hash);
+            if (index >= 0)
+            {
+                return putHelper(oldTable, index, value, deadline);
+            }
+            if (table.countHash(hash) + oldTable.countHash(hash)
+                    >= bucketRoom(hash))
+            {
+                // Two tables hold more keys of one hash than one table
+                // could without its stash, so gather them first.
+                completeMigration();
+            }
+        }
+        int moved = insert(key, value, hash, deadline);
+        if (recorder != null)
+        {
+            if (moved < 0)
+            {
+                recorder.recordStash();
+            }
+            else
+            {
+                recorder.recordDisplacements(moved);
+            }
+        }
+        if (deadline != 0)
+        {
+            wheel.schedule(key, deadline);
+        }
+        if (valueIndex != null)
+        {
+            indexValue(value);
+        }
+        size++;
+        modCount++;
+        return null;
+    }
+    
+    /**
+     * Places a key that is known to be absent.  A breadth-first search
+     * finds the shortest chain of displacements that frees a slot in
+     * one of its buckets; the moves are then made from the free end
+     * backwards.  If no such chain exists the key goes to the stash,
+     * and the table is only resized once the stash is full as well,
+     * unless no resize could ever make room.
+     * Expired entries count as free slots, so a chain may end at one
+     * and reclaim it.  Nothing is recorded in the statistics here, as
+     * resizes re-place entries through this method too; the caller
+     * records what a new key cost.
+     * @param key The key.
+     * @param value The value.
+     * @param hash The mixed hash of the key.
+     * @param deadline When the entry expires, or 0 if it never does.
+     * @return The number of entries moved, or -1 if the key was
+     *     stashed.
+     * @throws IllegalArgumentException If too many keys share the
+     *     key's hash for it ever to be placed.
+     */
+    private int insert(Object key, Object value, long hash, long deadline)
+    {
+        Table t = table;
+        if (t.deadlines != null)
+        {
+            now = clock.getAsLong();
+        }
+        int length = search.search(t.h1(hash), t.h2(hash));
+        if (length < 0)
+        {
+            for (int i = t.stashStart(); i < t.keys.length; i++)
+            {
+                if (t.keys[i] == null)
+                {
+                    t.store(i, key, value, hash, deadline);
+                    t.stashed++;
+                    return -1;
+                }
+            }
+            checkSeparable(hash);
+            resize();
+            return insert(key, value, hash, deadline);
+        }
+        int end = search.slotAt(length - 1);
+        if (t.keys[end] != null)
+        {
+            dropExpired(t, end);
+        }
+        for (int i = length - 1; i > 0; i--)
+        {
+            t.move(search.slotAt(i - 1), search.slotAt(i));
+        }
+        t.store(search.slotAt(0), key, value, hash, deadline);
+        return length - 1;
+    }
+    
+    /**
+     * Throws if a resize could not make room for a key.  Keys with the
+     * same mixed hash share both buckets at every size, so whatever
+     * such a group holds beyond its buckets must stay in the stash.
+     * Only groups with a key in a stash, or the new key's own, can
+     * overflow; once their overflow exceeds the stash, growing the
+     * table would only repeat until memory ran out.  During an
+     * incremental resize a group may only grow past its buckets once
+     * the migration is done, so the count spans both tables.
+     * @param hash The mixed hash of the key being placed.
+     * @throws IllegalArgumentException If the key can never be placed.
+     */
+    private void checkSeparable(long hash)
+    {
+        long[] groups = new long[2 * STASH_SIZE + 1];
+        groups[0] = hash;
+        int count = addStashed(table, groups, 1);
+        if (oldTable != null)
+        {
+            count = addStashed(oldTable, groups, count);
+        }
+        int overflow = 0;
+        for (int g = 0; g < count; g++)
+        {
+            long h = groups[g];
+            int members = (g == 0) ? 1 : 0;
+            members += table.countHash(h);
+            if (oldTable != null)
+            {
+                members += oldTable.countHash(h);
+            }
+            overflow += Math.max(0, members - bucketRoom(h));
+        }
+        if (overflow > STASH_SIZE)
+        {
+            throw new IllegalArgumentException(
+                "too many keys with the same hash code");
+        }
+    }
+    
+    /**
+     * Returns how many keys with one mixed hash fit in buckets: those
+     * of two buckets, or of one if the hash picks the same bucket twice
+     * at every size.
+     * @param hash The mixed hash.
+     * @return The number of slots.
+     */
+    private int bucketRoom(long hash)
+    {
+        return ((int) hash == (int) (hash >>> 32)) ? slots : 2 * slots;
+    }
+    
+    /**
+     * Adds the hashes of a table's stashed entries to a list of
+     * distinct hashes.
+     * @param t The table.
+     * @param groups The hashes found so far.
+     * @param count The number of hashes found so far.
+     * @return The number of hashes now in the list.
+     */
+    private int addStashed(Table t, long[] groups, int count)
+    {
+        for (int i = t.stashStart(); i < t.keys.length; i++)
+        {
+            if (t.keys[i] == null)
+            {
+                continue;
+            }
+            int g = 0;
+            while (g < count && groups[g] != t.hashes[i])
+            {
+                g++;
+            }
+            if (g == count)
+            {
+                groups[count++] = t.hashes[i];
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Helper to overwrite entry in case key already exists. 
+     * @param t The table holding the entry.
+     * @param index Index of entry
+     * @param newValue The new value.
+     * @param deadline The new deadline, or 0 for none.
+     * @return The old value, or null if the entry had expired.
+     */
+    @SuppressWarnings("unchecked")
+    private V putHelper(Table t, int index, V newValue, long deadline)
+    {
+        V oldValue = expiredNow(t, index) ? null : (V) t.values[index];
+        replaceValue(t, index, newValue);
+        if (t.deadlines != null)
+        {
+            t.deadlines[index] = deadline;
+        }
+        if (deadline != 0)
+        {
+            wheel.schedule(t.keys[index], deadline);
+        }
+        modCount++;
+        return oldValue;
+    }
+    
+    /**
+     * Overwrites the value of an occupied slot, keeping the value index
+     * current.
+     * @param t The table holding the entry.
+     * @param index Index of entry
+     * @param newValue The new value.
+     */
+    private void replaceValue(Table t, int index, Object newValue)
+    {
+        if (valueIndex != null)
+        {
+            unindexValue(t.values[index]);
+            indexValue(newValue);
+        }
+        t.values[index] = newValue;
+    }
+    
+    /** 
+     * @see java.util.Map#remove(java.lang.Object)
+     * @param key The key.
+     * @return The value that was removed.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key)
+    {
+        if (oldTable != null)
+        {
+            migrate();
+        }
+        long hash = strategy.hash(key.hashCode());
+        Table t = table;
+        int index = t.indexOf(key, hash);
+        if (index < 0 && oldTable != null)
+        {
+            t = oldTable;
+            index = t.indexOf(key, hash);
+        }
+        if (index < 0)
+        {
+            return null;
+        }
+        if (log != null)
+        {
+            log.remove((K) key);
+        }
+        V value = expiredNow(t, index) ? null : (V) t.values[index];
+        if (valueIndex != null)
+        {
+            unindexValue(t.values[index]);
+        }
+        t.remove(index);
+        modCount++;
+        size--;
+        if (log != null)
+        {
+            log.commit();
+        }
+        if (autoShrink)
+        {
+            shrinkIfSparse();
+        }
+        return value;
+    }
+
+    /** 
+     * Grows the table once, up front, to hold every entry of the other
+     * map, so the copy does not resize repeatedly along the way.
+     * @see java.util.Map#putAll(java.util.Map)
+     * @param map The map.
+     */
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<? extends K, ? extends V> map)
+    {
+        ensureCapacity(size + map.size());
+        Set<?> set =
+                map.entrySet();
+        for (Object e : set)
+        {            
+            Entry<K, V> f = (Entry<K, V>) e;
+            put(f.getKey(), f.getValue());
+        }
+    }
+    
+    /**
+     * Returns the number of buckets a table needs to hold a number of
+     * entries without growing.
+     * @param count The number of entries.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @return The number of buckets.
+     */
+    private static int bucketsFor(int count, int slotsPerBucket)
+    {
+        double load = (slotsPerBucket == 1) ? PRESIZE_LOAD_SINGLE
+            : PRESIZE_LOAD;
+        return bucketsFor(count, slotsPerBucket, load);
+    }
+    
+    /**
+     * Returns the number of buckets a table needs to hold a number of
+     * entries at a given load.
+     * @param count The number of entries.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @param load The fraction of slots to fill.
+     * @return The number of buckets.
+     */
+    private static int bucketsFor(int count, int slotsPerBucket, double load)
+    {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE / slotsPerBucket
+            - STASH_SIZE, Math.ceil(count / (slotsPerBucket * load))));
+    }
+    
+    /**
+     * Builds a map from a stream of entries using several threads.
+     * @see #bulkLoad(Collection, int)
+     * @param entries The entries.
+     * @param parallelism The number of worker threads.
+     * @param <K> Class variable for keys.
+     * @param <V> Class variable for values.
+     * @return The map.
+     */
+    public static <K, V> CuckooHashMap<K, V> bulkLoad(
+            Stream<? extends Map.Entry<? extends K, ? extends V>> entries,
+            int parallelism)
+    {
+        return bulkLoad(entries.collect(Collectors.toList()), parallelism);
+    }
+    
+    /**
+     * Builds a map from a collection of entries using several threads.
+     * The table is sized for the entries up front and split into bucket
+     * ranges, each owned by one fork-join task.  Every entry is first
+     * offered to its first bucket by the owner of that bucket, then the
+     * ones that did not fit to their second bucket in the same way, so
+     * no two tasks ever write the same slot.  The few entries left after
+     * that are inserted one at a time with the usual displacement
+     * search.  As with put, a later entry for a key replaces an earlier
+     * one.
+     * @param entries The entries.
+     * @param parallelism The number of worker threads.
+     * @param <K> Class variable for keys.
+     * @param <V> Class variable for values.
+     * @return The map.
+     */
+    public static <K, V> CuckooHashMap<K, V> bulkLoad(
+            Collection<? extends Map.Entry<? extends K, ? extends V>> entries,
+            int parallelism)
+    {
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+        Object[] keys = new Object[entries.size()];
+        Object[] values = new Object[keys.length];
+        int i = 0;
+        for (Map.Entry<? extends K, ? extends V> e : entries)
+        {
+            keys[i] = e.getKey();
+            values[i] = e.getValue();
+            i++;
+        }
+        CuckooHashMap<K, V> map = new CuckooHashMap<K, V>(
+            bucketsFor(keys.length, DEFAULT_SLOTS), DEFAULT_SLOTS);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try
+        {
+            map.bulkPlace(keys, values, pool, parallelism);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        return map;
+    }
+    
+    /**
+     * Places entries into an empty table in the two parallel rounds
+     * described by bulkLoad, then inserts the rest.
+     * @param keys The keys, in input order.
+     * @param values The values, in input order.
+     * @param pool Runs the tasks.
+     * @param parallelism The number of worker threads.
+     */
+    @SuppressWarnings("unchecked")
+    private void bulkPlace(Object[] keys, Object[] values, ForkJoinPool pool,
+            int parallelism)
+    {
+        int n = keys.length;
+        Table t = table;
+        long[] hashes = new long[n];
+        pool.invoke(new Split(0, n, HASH_GRAIN, i ->
+            hashes[i] = strategy.hash(keys[i].hashCode())));
+        int width = Math.max(1, (t.buckets + parallelism
+            * PARTITIONS_PER_WORKER - 1) / (parallelism
+            * PARTITIONS_PER_WORKER));
+        // Whole multiples of 64 buckets, so no two tasks share a word
+        // of the occupancy bitmap.
+        width = (width + 63) & ~63;
+        int parts = (t.buckets + width - 1) / width;
+        int[] placed = new int[parts];
+        int[] order = new int[n];
+        int[] start = new int[parts + 1];
+        int[] left = new int[parts];
+        int[] pending = new int[n];
+        for (int i = 0; i < n; i++)
+        {
+            pending[i] = i;
+        }
+        int remaining = n;
+        for (int round = 0; round < 2 && remaining > 0; round++)
+        {
+            boolean first = round == 0;
+            // Stable counting sort by owning range keeps duplicate keys
+            // in input order within the task that handles them.
+            Arrays.fill(start, 0);
+            for (int j = 0; j < remaining; j++)
+            {
+                int i = pending[j];
+                int b = first ? t.h1(hashes[i]) : t.h2(hashes[i]);
+                start[b / width + 1]++;
+            }
+            for (int p = 0; p < parts; p++)
+            {
+                start[p + 1] += start[p];
+            }
+            int[] fill = Arrays.copyOf(start, parts);
+            for (int j = 0; j < remaining; j++)
+            {
+                int i = pending[j];
+                int b = first ? t.h1(hashes[i]) : t.h2(hashes[i]);
+                order[fill[b / width]++] = i;
+            }
+            pool.invoke(new Split(0, parts, 1, p ->
+            {
+                int kept = start[p];
+                for (int j = start[p]; j < start[p + 1]; j++)
+                {
+                    int i = order[j];
+                    int b = first ? t.h1(hashes[i]) : t.h2(hashes[i]);
+                    int result = t.offer(b, keys[i], values[i], hashes[i]);
+                    if (result > 0)
+                    {
+                        placed[p]++;
+                    }
+                    else if (result < 0)
+                    {
+                        order[kept++] = i;
+                    }
+                }
+                left[p] = kept - start[p];
+            }));
+            remaining = 0;
+            for (int p = 0; p < parts; p++)
+            {
+                System.arraycopy(order, start[p], pending, remaining,
+                    left[p]);
+                remaining += left[p];
+            }
+        }
+        for (int count : placed)
+        {
+            size += count;
+        }
+        for (int j = 0; j < remaining; j++)
+        {
+            int i = pending[j];
+            put((K) keys[i], (V) values[i]);
+        }
+    }
+    
+    /**
+     * Passes every entry to an action, in parallel once the map holds
+     * at least parallelismThreshold entries.  As with ConcurrentHashMap,
+     * a threshold of Long.MAX_VALUE runs sequentially and 1 always runs
+     * in parallel.  The map must not be modified meanwhile; this is
+     * checked once at the end rather than at every entry.
+     * @param parallelismThreshold Entries needed to run in parallel.
+     * @param action The action, which may be called from any thread.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(long parallelismThreshold,
+            BiConsumer<? super K, ? super V> action)
+    {
+        runChunks(chunksPerTable(parallelismThreshold),
+            (keys, values, from, to, chunk) ->
+            {
+                for (int i = from; i < to; i++)
+                {
+                    if (keys[i] != null)
+                    {
+                        action.accept((K) keys[i], (V) values[i]);
+                    }
+                }
+            });
+    }
+    
+    /**
+     * Returns a non-null result of a function applied to some entry, or
+     * null if it returns null for every entry.  Once any task finds a
+     * result the others stop early.
+     * @see #forEach(long, BiConsumer)
+     * @param parallelismThreshold Entries needed to run in parallel.
+     * @param searchFunction Returns a result, or null to keep looking.
+     * @param <U> The class of the result.
+     * @return A result, or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public <U> U search(long parallelismThreshold,
+            BiFunction<? super K, ? super V, ? extends U> searchFunction)
+    {
+        AtomicReference<U> result = new AtomicReference<U>();
+        runChunks(chunksPerTable(parallelismThreshold),
+            (keys, values, from, to, chunk) ->
+            {
+                for (int i = from; i < to && result.get() == null; i++)
+                {
+                    if (keys[i] != null)
+                    {
+                        U u = searchFunction.apply((K) keys[i],
+                            (V) values[i]);
+                        if (u != null)
+                        {
+                            result.compareAndSet(null, u);
+                        }
+                    }
+                }
+            });
+        return result.get();
+    }
+    
+    /**
+     * Combines all values with a reducer.
+     * @see #forEach(long, BiConsumer)
+     * @param parallelismThreshold Entries needed to run in parallel.
+     * @param reducer Combines two values; must be associative.
+     * @return The combined value, or null if the map is empty.
+     */
+    public V reduceValues(long parallelismThreshold,
+            BiFunction<? super V, ? super V, ? extends V> reducer)
+    {
+        return reduceValues(parallelismThreshold, Function.identity(),
+            reducer);
+    }
+    
+    /**
+     * Transforms every value and combines the non-null results.
+     * @see #forEach(long, BiConsumer)
+     * @param parallelismThreshold Entries needed to run in parallel.
+     * @param transformer Transforms a value, or returns null to skip it.
+     * @param reducer Combines two results; must be associative.
+     * @param <U> The class of the results.
+     * @return The combined result, or null if there were none.
+     */
+    @SuppressWarnings("unchecked")
+    public <U> U reduceValues(long parallelismThreshold,
+            Function<? super V, ? extends U> transformer,
+            BiFunction<? super U, ? super U, ? extends U> reducer)
+    {
+        int perTable = chunksPerTable(parallelismThreshold);
+        Object[] partial = new Object[perTable * 2];
+        runChunks(perTable, (keys, values, from, to, chunk) ->
+        {
+            U acc = null;
+            for (int i = from; i < to; i++)
+            {
+                if (keys[i] != null)
+                {
+                    U u = transformer.apply((V) values[i]);
+                    if (u != null)
+                    {
+                        acc = (acc == null) ? u : reducer.apply(acc, u);
+                    }
+                }
+            }
+            partial[chunk] = acc;
+        });
+        U result = null;
+        for (Object p : partial)
+        {
+            if (p != null)
+            {
+                result = (result == null) ? (U) p
+                    : reducer.apply(result, (U) p);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Transforms every value to a long and combines the results.
+     * @see #forEach(long, BiConsumer)
+     * @param parallelismThreshold Entries needed to run in parallel.
+     * @param transformer Transforms a value.
+     * @param basis The identity of the reducer.
+     * @param reducer Combines two results; must be associative.
+     * @return The combined result.
+     */
+    public long reduceValuesToLong(long parallelismThreshold,
+            ToLongFunction<? super V> transformer, long basis,
+            LongBinaryOperator reducer)
+    {
+        return reduceToLong(parallelismThreshold,
+            (k, v) -> transformer.applyAsLong(v), basis, reducer);
+    }
+    
+    /**
+     * Transforms every entry to a long and combines the results.
+     * @see #forEach(long, BiConsumer)
+     * @param parallelismThreshold Entries needed to run in parallel.
+     * @param transformer Transforms a key and its value.
+     * @param basis The identity of the reducer.
+     * @param reducer Combines two results; must be associative.
+     * @return The combined result.
+     */
+    @SuppressWarnings("unchecked")
+    public long reduceToLong(long parallelismThreshold,
+            ToLongBiFunction<? super K, ? super V> transformer, long basis,
+            LongBinaryOperator reducer)
+    {
+        int perTable = chunksPerTable(parallelismThreshold);
+        long[] partial = new long[perTable * 2];
+        Arrays.fill(partial, basis);
+        runChunks(perTable, (keys, values, from, to, chunk) ->
+        {
+            long acc = basis;
+            for (int i = from; i < to; i++)
+            {
+                if (keys[i] != null)
+                {
+                    acc = reducer.applyAsLong(acc, transformer.applyAsLong(
+                        (K) keys[i], (V) values[i]));
+                }
+            }
+            partial[chunk] = acc;
+        });
+        long result = basis;
+        for (long p : partial)
+        {
+            result = reducer.applyAsLong(result, p);
+        }
+        return result;
+    }
+    
+    /**
+     * Returns how many ranges each table is cut into for a bulk
+     * operation.
+     * @param parallelismThreshold Entries needed to run in parallel.
+     * @return 1 to run sequentially, else a few ranges per worker.
+     */
+    private int chunksPerTable(long parallelismThreshold)
+    {
+        if (size < parallelismThreshold)
+        {
+            return 1;
+        }
+        return ForkJoinPool.getCommonPoolParallelism()
+            * PARTITIONS_PER_WORKER;
+    }
+    
+    /**
+     * Runs an action over equal slot ranges of the table, and of the
+     * old table during an incremental resize, on the common fork-join
+     * pool unless there is only one range per table.  Ranges of the
+     * current table are numbered from 0 and those of the old table from
+     * perTable.
+     * @param perTable The number of ranges per table.
+     * @param action The action.
+     */
+    private void runChunks(int perTable, ChunkAction action)
+    {
+        int expectedModCount = modCount;
+        Table current = table;
+        Table old = oldTable;
+        IntConsumer chunk = c ->
+        {
+            Table t = (c < perTable) ? current : old;
+            long length = t.keys.length;
+            int part = c % perTable;
+            action.run(t.keys, t.values, (int) (length * part / perTable),
+                (int) (length * (part + 1) / perTable), c);
+        };
+        int chunks = (old == null) ? perTable : 2 * perTable;
+        if (perTable == 1)
+        {
+            for (int c = 0; c < chunks; c++)
+            {
+                chunk.accept(c);
+            }
+        }
+        else
+        {
+            ForkJoinPool.commonPool().invoke(new Split(0, chunks, 1, chunk));
+        }
+        if (modCount != expectedModCount)
+        {
+            throw new ConcurrentModificationException();
+        }
+    }
+    
+    /**
+     * Work done by a bulk operation on one range of slots.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private interface ChunkAction
+    {
+        /**
+         * Processes a range of slots.
+         * @param keys The keys of the table.
+         * @param values The values of the table.
+         * @param from The first slot.
+         * @param to The slot after the last.
+         * @param chunk The number of the range.
+         */
+        void run(Object[] keys, Object[] values, int from, int to,
+            int chunk);
+    }
+    
+    /**
+     * Base class for Entry, value, and key
+     * set view iterators.
+     * @author Patrick Parker
+     * @version Nov 27, 2016
+     * @param <E> The class.
+     */
+    private abstract class CuckooHashIterator<E> implements Iterator<E>
+    {
+        /** Table holding the next entry */
+        Table nextTable;
+        /** Index of next entry, or -1 if there is none */
+        int next;
+        /** Table holding the entry last returned */
+        Table lastTable;
+        /** Index of the entry last returned */
+        int last;
+        /** For detecting concurrent modification */
+        int expectedModCount;
+        
+        /**
+         * Constructor for iterator.  Entries still in the old table of
+         * an incremental resize are returned first.
+         */
+        CuckooHashIterator()
+        {
+            expectedModCount = modCount;
+            nextTable = (oldTable != null) ? oldTable : table;
+            next = nextTable.nextOccupied(0);
+            if (next < 0 && nextTable != table)
+            {
+                nextTable = table;
+                next = nextTable.nextOccupied(0);
+            }
+        }
+        
+        /** 
+         * @see java.util.Iterator#hasNext()
+         * @return True if next exists, else false.
+         */
+        public final boolean hasNext()
+        {
+            return next >= 0;
+        }
+        
+        /**
+         * Moves to the next entry, leaving it in lastTable and last.
+         */
+        final void nextSlot()
+        {
+            if (expectedModCount != modCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (next < 0)
+            {
+                throw new NoSuchElementException();                
+            }
+            lastTable = nextTable;
+            last = next;
+            next = nextTable.nextOccupied(next + 1);
+            if (next < 0 && nextTable != table)
+            {
+                nextTable = table;
+                next = nextTable.nextOccupied(0);
+            }
+        }
+        /** 
+         * @see java.util.Iterator#remove()
+         */
+        public final void remove()
+        {
+            throw new UnsupportedOperationException();            
+        }
+        
+    }
+    /**
+     * Value set iterator class.
+     * @author Patrick Parker
+     * @version Nov 27, 2016
+     *
+     */
+    private final class ValueIterator extends CuckooHashIterator<V>
+    {
+        /** 
+         * @see java.util.Iterator#next()
+         * @return Next value.
+         */
+        @SuppressWarnings("unchecked")
+        public V next()
+        {
+            nextSlot();
+            return (V) lastTable.values[last];
+        }
+    }
+    
+    /**
+     * Key set iterator class.
+     * @author Patrick Parker
+     * @version Nov 27, 2016
+     *
+     */
+    private final class KeyIterator extends CuckooHashIterator<K>
+    {
+        /** 
+         * @see java.util.Iterator#next()
+         * @return Next key.
+         */
+        @SuppressWarnings("unchecked")
+        public K next()
+        {
+            nextSlot();
+            return (K) lastTable.keys[last];
+        }
+    }
+    
+    /**
+     * Entry set iterator class.
+     * @author Patrick Parker
+     * @version Nov 27, 2016
+     *
+     */
+    private final class MapEntryIterator 
+        extends CuckooHashIterator<java.util.Map.Entry<K, V>>
+    {
+        /** 
+         * @see java.util.Iterator#next()
+         * @return Next entry.
+         */
+        public CuckooHashMap<K, V>.MapEntry next()
+        {
+            nextSlot();
+            return entryAt(lastTable, last);
+        }
+    }
+    
+    /**
+     * Reads the element a view returns for an occupied slot.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     * @param <E> The class.
+     */
+    private interface SlotReader<E>
+    {
+        /**
+         * Returns the element for a slot.
+         * @param keys The keys of the table.
+         * @param values The values of the table.
+         * @param index The index of an occupied slot.
+         * @return The element.
+         */
+        E read(Object[] keys, Object[] values, int index);
+    }
+    
+    /**
+     * Spliterator for the views.  It covers a range of slot indices and
+     * splits by halving the range, so parallel streams divide the table
+     * evenly.  While an incremental resize is under way the spliterator
+     * of a view covers the new table and holds the old one back, and
+     * the first split hands the old table off whole.  Only an unsplit
+     * spliterator knows its exact size; splits estimate theirs from the
+     * share of slots they cover, so it is SIZED but never SUBSIZED.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     * @param <E> The class.
+     */
+    private final class SlotSpliterator<E> implements Spliterator<E>
+    {
+        private final SlotReader<E> reader;
+        private final int flags;
+        private final int expectedModCount;
+        private Table tab;
+        private Table pending;
+        private int index;
+        private int fence;
+        private long estimate;
+        private boolean exact;
+        
+        /**
+         * Creates a spliterator over the whole map.
+         * @param slotReader Reads the element of a slot.
+         * @param characteristics DISTINCT and NONNULL as they apply.
+         */
+        SlotSpliterator(SlotReader<E> slotReader, int characteristics)
+        {
+            this(slotReader, characteristics, table, 0, table.keys.length,
+                size, true);
+            pending = oldTable;
+        }
+        
+        /**
+         * Creates a spliterator over a range of slots.
+         * @param slotReader Reads the element of a slot.
+         * @param characteristics DISTINCT and NONNULL as they apply.
+         * @param t The table.
+         * @param from The first slot.
+         * @param to The slot after the last.
+         * @param est The number of elements, or an estimate of it.
+         * @param sized True if est is exact, else false.
+         */
+        private SlotSpliterator(SlotReader<E> slotReader,
+                int characteristics, Table t, int from, int to, long est,
+                boolean sized)
+        {
+            reader = slotReader;
+            flags = characteristics;
+            expectedModCount = modCount;
+            tab = t;
+            index = from;
+            fence = to;
+            estimate = est;
+            exact = sized;
+        }
+        
+        /** 
+         * @see java.util.Spliterator#trySplit()
+         * @return A spliterator over a prefix of the slots, or null.
+         */
+        public Spliterator<E> trySplit()
+        {
+            exact = false;
+            if (pending != null)
+            {
+                Table old = pending;
+                pending = null;
+                long share = estimate * old.keys.length 
+                    / (old.keys.length + fence - index);
+                estimate -= share;
+                return new SlotSpliterator<E>(reader, flags, old, 0,
+                    old.keys.length, share, false);
+            }
+            int mid = (index + fence) >>> 1;
+            if (mid <= index)
+            {
+                return null;
+            }
+            int from = index;
+            index = mid;
+            estimate >>>= 1;
+            return new SlotSpliterator<E>(reader, flags, tab, from, mid,
+                estimate, false);
+        }
+        
+        /** 
+         * @see java.util.Spliterator#tryAdvance(java.util.function.Consumer)
+         * @param action The action.
+         * @return True if an element was passed, else false.
+         */
+        public boolean tryAdvance(Consumer<? super E> action)
+        {
+            do
+            {
+                int i = tab.nextOccupied(index, fence);
+                if (i >= 0)
+                {
+                    index = i + 1;
+                    action.accept(reader.read(tab.keys, tab.values, i));
+                    if (exact)
+                    {
+                        estimate--;
+                    }
+                    checkModCount();
+                    return true;
+                }
+                index = fence;
+            }
+            while (nextTable());
+            return false;
+        }
+        
+        /** 
+         * @see java.util.Spliterator#forEachRemaining(java.util.function.Consumer)
+         * @param action The action.
+         */
+        public void forEachRemaining(Consumer<? super E> action)
+        {
+            do
+            {
+                Object[] keys = tab.keys;
+                Object[] values = tab.values;
+                for (int i = tab.nextOccupied(index, fence); i >= 0;
+                        i = tab.nextOccupied(i + 1, fence))
+                {
+                    action.accept(reader.read(keys, values, i));
+                }
+                index = fence;
+            }
+            while (nextTable());
+            estimate = 0;
+            checkModCount();
+        }
+        
+        /**
+         * Moves on to the old table of a resize once the new one is
+         * done, unless a split took it.
+         * @return True if there is another table, else false.
+         */
+        private boolean nextTable()
+        {
+            if (pending == null)
+            {
+                return false;
+            }
+            tab = pending;
+            pending = null;
+            index = 0;
+            fence = tab.keys.length;
+            return true;
+        }
+        
+        /** 
+         * @see java.util.Spliterator#estimateSize()
+         * @return The number of elements left, or an estimate.
+         */
+        public long estimateSize()
+        {
+            return estimate;
+        }
+        
+        /** 
+         * @see java.util.Spliterator#characteristics()
+         * @return The characteristics.
+         */
+        public int characteristics()
+        {
+            return exact ? flags | Spliterator.SIZED : flags;
+        }
+        
+        /**
+         * Throws if the map changed since this spliterator was created.
+         */
+        private void checkModCount()
+        {
+            if (modCount != expectedModCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /** 
+     * @see java.util.Map#entrySet()
+     * @return Set of entries.
+     */
+    public Set<java.util.Map.Entry<K, V>> entrySet()
+    {
+        Set<java.util.Map.Entry<K, V>> set = entrySet;
+        if (set != null)
+        {
+            return set;
+        }
+        entrySet = new MapEntrySet();
+        return  entrySet;
+    }
+    
+    /**
+     * Inner class for Entry set view.
+     * @author Patrick Parker
+     * @version Nov 27, 2016
+     *
+     */
+    private final class MapEntrySet 
+        extends AbstractSet<java.util.Map.Entry<K, V>>
+    {
+
+        /** 
+         * @see java.util.AbstractCollection#iterator()
+         * @return Iterator over entries.
+         */
+        @Override
+        public Iterator<java.util.Map.Entry<K, V>> iterator() 
+        {           
+            return new MapEntryIterator();
+        }
+        
+        /** 
+         * @see java.util.Collection#spliterator()
+         * @return Spliterator over entries.
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        public Spliterator<java.util.Map.Entry<K, V>> spliterator()
+        {
+            return new SlotSpliterator<java.util.Map.Entry<K, V>>(
+                (k, v, i) -> new MapEntry((K) k[i], (V) v[i]),
+                Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+
+        /** 
+         * @see java.util.AbstractCollection#size()
+         * @return The current size.
+         */
+        @Override
+        public int size() 
+        {
+            return size;
+        }
+        
+        /** 
+         * @see java.util.AbstractCollection#clear()
+         */
+        public void clear()
+        {
+            CuckooHashMap.this.clear();
+        }
+        
+        /** 
+         * @see java.util.AbstractCollection#contains(java.lang.Object)
+         * @param o The object.
+         * @return True if present, else false.
+         */
+        public boolean contains(Object o)
+        {
+            if (!(o instanceof Map.Entry<?, ?>))
+            {
+                return false;
+            }
+            @SuppressWarnings("unchecked")
+            Map.Entry<K, V> e = (Map.Entry<K, V>) o;
+            V value = e.getValue();
+            return containsKey(e.getKey()) &&
+                value.equals(get(e.getKey()));
+        }
+        /** 
+         * @see java.util.AbstractCollection#containsAll(java.util.Collection)
+         * @param c The Collection.
+         * @return True if successful, else false.
+         */
+        public boolean containsAll(Collection<?> c)
+        {
+            for (Object e : c)
+            {
+                if (!contains(e))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /** 
+         * @see java.util.AbstractCollection#remove(java.lang.Object)
+         * @param o The object.
+         * @return True if successful, else false.
+         */
+        public boolean remove(Object o) 
+        {
+            throw new UnsupportedOperationException();
+        }
+        /** 
+         * @see java.util.AbstractSet#removeAll(java.util.Collection)
+         * @param c Unsupported
+         * @return unsupported
+         */
+        public boolean removeAll(Collection<?> c)
+        {
+            throw new UnsupportedOperationException();
+        }
+        /** 
+         * @see java.util.AbstractCollection#add(java.lang.Object)
+         * @param e Unsupported.
+         * @return unsupported.
+         */
+        public boolean add(java.util.Map.Entry<K, V> e)
+        {
+            throw new UnsupportedOperationException();
+        }
+        /** 
+         * @see java.util.AbstractCollection#addAll(java.util.Collection)
+         * @param c Unsupported
+         * @return unsupported
+         */
+        public boolean addAll(Collection<? extends java.util.Map.Entry<K, V>> c)
+        {
+            throw new UnsupportedOperationException();
+        }
+        /**
+         * @see java.util.AbstractCollection#retainAll(java.util.Collection)
+         * @param c Unsupported
+         * @return unsupported
+         */
+        public boolean retainAll(Collection<?> c)
+        {
+            throw new UnsupportedOperationException();
+        }
+        
+    }
+
+    /** 
+     * @see java.util.Map#keySet()
+     * @return The set view of keys.
+     */
+    public Set<K> keySet()
+    {
+        Set<K> set = keys;
+        if (set != null)
+        {
+            return set;
+        }
+        keys = new KeySet();
+        return keys;
+    }
+    
+    /**
+     * Inner class for KeySet view.
+     * @author Patrick Parker
+     * @version Nov 27, 2016
+     *
+     */
+    private final class KeySet extends AbstractSet<K> 
+    {
+        /** 
+         * @see java.util.AbstractCollection#iterator()
+         * @return The iterator.
+         */
+        public Iterator<K> iterator() 
+        {
+            return new KeyIterator();
+        }
+        /** 
+         * @see java.util.Collection#spliterator()
+         * @return Spliterator over keys.
+         */
+        @SuppressWarnings("unchecked")
+        public Spliterator<K> spliterator()
+        {
+            return new SlotSpliterator<K>((k, v, i) -> (K) k[i],
+                Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+        /** 
+         * @see java.util.AbstractCollection#size()
+         * @return The current size.
+         */
+        public int size() 
+        {
+            return size;
+        }
+        /** 
+         * @see java.util.AbstractCollection#contains(java.lang.Object)
+         * @param o The object.
+         * @return True if present, else false.
+         */
+        public boolean contains(Object o) 
+        {
+            return containsKey(o);
+        }
+        /** 
+         * @see java.util.AbstractCollection#containsAll(java.util.Collection)
+         * @param c The Collection.
+         * @return True if successful, else false.
+         */
+        public boolean containsAll(Collection<?> c)
+        {
+            for (Object e : c)
+            {
+                if (!contains(e))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        /** 
+         * @see java.util.AbstractCollection#remove(java.lang.Object)
+         * @param o The object.
+         * @return True if successful, else false.
+         */
+        public boolean remove(Object o) 
+        {
+            throw new UnsupportedOperationException();
+        }
+        /** 
+         * @see java.util.AbstractCollection#clear()
+         */
+        public void clear() 
+        {
+            CuckooHashMap.this.clear();
+        }
+        /** 
+         * @see java.util.AbstractSet#removeAll(java.util.Collection)
+         * @param c Unsupported
+         * @return unsupported
+         */
+        public boolean removeAll(Collection<?> c)
+        {
+            throw new UnsupportedOperationException();
+        }
+        /** 
+         * @see java.util.AbstractCollection#add(java.lang.Object)
+         * @param k Unsupported.
+         * @return unsupported.
+         */
+        public boolean add(K k)
+        {
+            throw new UnsupportedOperationException();
+        }
+        /** 
+         * @see java.util.AbstractCollection#addAll(java.util.Collection)
+         * @param c Unsupported
+         * @return unsupported
+         */
+        public boolean addAll(Collection<? extends K> c)
+        {
+            throw new UnsupportedOperationException();
+        }
+        /**
+         * @see java.util.AbstractCollection#retainAll(java.util.Collection)
+         * @param c Unsupported
+         * @return unsupported
+         */
+        public boolean retainAll(Collection<?> c)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** 
+     * @see java.util.Map#values()
+     * @return Collection of values.
+     */
+    public Collection<V> values()
+    {
+        Collection<V> v = values;
+        if (v != null)
+        {
+            return v;
+        }
+        values = new Values();
+        return values;
+    }
+    
+    /**
+     * Inner class for values view.
+     * @author Patrick Parker
+     * @version Nov 27, 2016
+     *
+     */
+    private final class Values extends AbstractCollection<V> 
+    {
+        /** 
+         * @see java.util.AbstractCollection#iterator()
+         * @return Iterator over values.
+         */
+        public Iterator<V> iterator() 
+        {
+            return new ValueIterator();
+        }
+        /** 
+         * @see java.util.Collection#spliterator()
+         * @return Spliterator over values.
+         */
+        @SuppressWarnings("unchecked")
+        public Spliterator<V> spliterator()
+        {
+            return new SlotSpliterator<V>((k, v, i) -> (V) v[i], 0);
+        }
+        /** 
+         * @see java.util.AbstractCollection#size()
+         * @return The current size.
+         */
+        public int size() 
+        {
+            return size;
+        }
+        /** 
+         * @see java.util.AbstractCollection#contains(java.lang.Object)
+         * @param o The object.
+         * @return True if present, else false.
+         */
+        public boolean contains(Object o) 
+        {
+            return containsValue(o);
+        }
+        /** 
+         * @see java.util.AbstractCollection#containsAll(java.util.Collection)
+         * @param c The Collection.
+         * @return True if successful, else false.
+         */
+        public boolean containsAll(Collection<?> c)
+        {
+            for (Object e : c)
+            {
+                if (!contains(e))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        /** 
+         * @see java.util.AbstractCollection#clear()
+         */
+        public void clear() 
+        {
+            CuckooHashMap.this.clear();
+        }
+        /** 
+         * @see java.util.AbstractCollection#remove(java.lang.Object)
+         * @param o The object.
+         * @return True if successful, else false.
+         */
+        public boolean remove(Object o) 
+        {
+            throw new UnsupportedOperationException();
+        }
+        /** 
+         * @see java.util.AbstractCollection#removeAll(java.util.Collection)
+         * @param c Unsupported
+         * @return unsupported
+         */
+        public boolean removeAll(Collection<?> c)
+        {
+            throw new UnsupportedOperationException();
+        }
+        /** 
+         * @see java.util.AbstractCollection#add(java.lang.Object)
+         * @param v Unsupported.
+         * @return unsupported.
+         */
+        public boolean add(V v)
+        {
+            throw new UnsupportedOperationException();
+        }
+        /** 
+         * @see java.util.AbstractCollection#addAll(java.util.Collection)
+         * @param c Unsupported
+         * @return unsupported
+         */
+        public boolean addAll(Collection<? extends V> c)
+        {
+            throw new UnsupportedOperationException();
+        }
+        /**
+         * @see java.util.AbstractCollection#retainAll(java.util.Collection)
+         * @param c Unsupported
+         * @return unsupported
+         */
+        public boolean retainAll(Collection<?> c)
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+    /**
+     * Moves a bounded number of buckets from the old table into the
+     * current one, dropping the old table once it is empty.
+     */
+    private void migrate()
+    {
+        long start = (recorder != null) ? System.nanoTime() : 0;
+        Table target = table;
+        Table old = oldTable;
+        int from = migrated * slots;
+        migrated = Math.min(migrated + MIGRATION_STEP, old.buckets);
+        int to = migrated * slots;
+        if (migrated == old.buckets)
+        {
+            oldTable = null;
+            to = old.keys.length;
+        }
+        moveAll(old, from, to);
+        timeMigration(target, start);
+    }
+    
+    /**
+     * Moves everything left in the old table into the current one.
+     */
+    private void completeMigration()
+    {
+        long start = (recorder != null) ? System.nanoTime() : 0;
+        Table target = table;
+        Table old = oldTable;
+        oldTable = null;
+        moveAll(old, migrated * slots, old.keys.length);
+        timeMigration(target, start);
+    }
+    
+    /**
+     * Adds a migration step to the time of the incremental resize under
+     * way, and records the resize once the old table is empty.  A step
+     * during which one of its inserts started another resize is left
+     * out, as the earlier resize was recorded when the next began.
+     * @param target The table the step moved entries into.
+     * @param start When the step began, from System.nanoTime.
+     */
+    private void timeMigration(Table target, long start)
+    {
+        if (migrationNanos < 0 || table != target)
+        {
+            return;
+        }
+        migrationNanos += System.nanoTime() - start;
+        if (oldTable == null)
+        {
+            recordMigration();
+        }
+    }
+    
+    /**
+     * Records the incremental resize being timed, if any, as done.
+     */
+    private void recordMigration()
+    {
+        if (migrationNanos >= 0 && recorder != null)
+        {
+            recorder.recordResize(migrationNanos);
+        }
+        migrationNanos = -1;
+    }
+    
+    /**
+     * Re-places a range of slots of a retired table using the stored
+     * hashes, so no key is hashed or mixed again, and leaves expired
+     * entries behind.  The range is claimed before anything is moved,
+     * so a resize triggered by one of the inserts never moves it twice.
+     * @param old The retired table.
+     * @param from The first slot to move.
+     * @param to The slot after the last one to move.
+     */
+    private void moveAll(Table old, int from, int to)
+    {
+        long time = (old.deadlines != null) ? clock.getAsLong() : 0;
+        for (int i = old.nextOccupied(from, to); i >= 0;
+                i = old.nextOccupied(i + 1, to))
+        {
+            Object key = old.keys[i];
+            old.vacate(i);
+            if (expired(old, i, time))
+            {
+                dropExpired(old, i);
+            }
+            else
+            {
+                insert(key, old.values[i], old.hashes[i],
+                    (old.deadlines != null) ? old.deadlines[i] : 0);
+            }
+            old.values[i] = null;
+        }
+    }
+    
+    /**
+     * Doubles the number of buckets.  Every entry is re-placed at once
+     * unless incremental resizing is enabled, in which case the old
+     * table is kept and drained by later puts and removes.
+     */
+    private void resize()
+    {
+        resizeTo(table.buckets * 2);
+    }
+    
+    /**
+     * Shrinks the table once its load falls under a quarter of the
+     * target, leaving it at half the target.
+     */
+    private void shrinkIfSparse()
+    {
+        if (oldTable != null || table.buckets <= minBuckets
+                || size >= table.buckets * slots * loadFactor / 4)
+        {
+            return;
+        }
+        int needed = Math.max(minBuckets, bucketsFor(size, slots,
+            loadFactor / 2));
+        if (needed < table.buckets)
+        {
+            resizeTo(needed);
+        }
+    }
+    
+    /**
+     * Moves the entries to a table with the given number of buckets, at
+     * once or incrementally like resize.  An incremental resize is
+     * timed from here until its migration is done, and only recorded
+     * then.
+     * @param numBuckets The number of buckets.
+     */
+    private void resizeTo(int numBuckets)
+    {        
+        if (oldTable != null)
+        {
+            completeMigration();
+            if (oldTable != null)
+            {
+                return;
+            }
+        }
+        recordMigration();
+        long start = (recorder != null) ? System.nanoTime() : 0;
+        Table old = table;
+        table = new Table(numBuckets);
+        if (incremental)
+        {
+            oldTable = old;
+            migrated = 0;
+            if (recorder != null)
+            {
+                migrationNanos = System.nanoTime() - start;
+            }
+        }
+        else
+        {
+            moveAll(old, 0, old.keys.length);
+            if (recorder != null)
+            {
+                recorder.recordResize(System.nanoTime() - start);
+            }
+        }
+    }
+    
+    /**
+     * Slot arrays of one generation of the table.  Slots of bucket b
+     * occupy the indices b * slots through (b + 1) * slots - 1 and the
+     * stash follows the last bucket.  During an incremental resize the
+     * map holds two tables.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class Table
+    {
+        /** Keys by slot, null where the slot is empty */
+        final Object[] keys;
+        /** Values by slot */
+        final Object[] values;
+        /** Mixed hashes of the keys by slot */
+        final long[] hashes;
+        /** Deadlines by slot, 0 for none, or null before any time to live */
+        long[] deadlines;
+        /** Bit i of word i / 64 is set where slot i is occupied */
+        final long[] occupied;
+        /** Number of buckets */
+        final int buckets;
+        /** Number of occupied stash slots */
+        int stashed;
+        
+        /**
+         * Creates an empty table.
+         * @param numBuckets The number of buckets.
+         */
+        Table(int numBuckets)
+        {
+            buckets = numBuckets;
+            keys = new Object[numBuckets * slots + STASH_SIZE];
+            values = new Object[numBuckets * slots + STASH_SIZE];
+            hashes = new long[numBuckets * slots + STASH_SIZE];
+            occupied = new long[(numBuckets * slots + STASH_SIZE + 63) >>> 6];
+            if (wheel != null)
+            {
+                deadlines = new long[numBuckets * slots + STASH_SIZE];
+            }
+        }
+        
+        /**
+         * First hash function.  Maps the low half of the mixed hash onto
+         * the buckets with a multiply and shift instead of a modulo.
+         * @param hash The mixed hash of the key.
+         * @return The index of bucket.
+         */
+        int h1(long hash)
+        {
+            return (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32);
+        }
+        
+        /**
+         * Second hash function.  Uses the high half of the mixed hash, so
+         * it is independent of h1.
+         * @param hash The mixed hash of the key.
+         * @return The index of bucket.
+         */
+        int h2(long hash)
+        {
+            return (int) (((hash >>> 32) * buckets) >>> 32);
+        }
+        
+        /**
+         * Returns the index of the first stash slot.
+         * @return The index.
+         */
+        int stashStart()
+        {
+            return buckets * slots;
+        }
+        
+        /**
+         * Finds the slot holding a key by checking both of its buckets.
+         * The stash is only searched when it holds something.
+         * @param key The key.
+         * @param hash The mixed hash of the key.
+         * @return The index of the slot, or -1 if absent.
+         */
+        int indexOf(Object key, long hash)
+        {
+            int b1 = h1(hash) * slots;
+            int index = indexInRange(b1, b1 + slots, key, hash);
+            if (index < 0)
+            {
+                int b2 = h2(hash) * slots;
+                index = indexInRange(b2, b2 + slots, key, hash);
+            }
+            if (index < 0 && stashed > 0)
+            {
+                index = indexInRange(stashStart(), keys.length, key, hash);
+            }
+            return index;
+        }
+        
+        /**
+         * Counts the live entries with a given mixed hash, all of which
+         * lie in its two buckets or the stash.
+         * @param hash The mixed hash.
+         * @return The number of entries.
+         */
+        int countHash(long hash)
+        {
+            int b1 = h1(hash) * slots;
+            int b2 = h2(hash) * slots;
+            int n = countInRange(b1, b1 + slots, hash);
+            if (b2 != b1)
+            {
+                n += countInRange(b2, b2 + slots, hash);
+            }
+            return n + countInRange(stashStart(), keys.length, hash);
+        }
+        
+        /**
+         * Counts the live entries with a given mixed hash within a range
+         * of slots.
+         * @param start The first slot to search.
+         * @param end The slot after the last one to search.
+         * @param hash The mixed hash.
+         * @return The number of entries.
+         */
+        private int countInRange(int start, int end, long hash)
+        {
+            int n = 0;
+            for (int i = start; i < end; i++)
+            {
+                if (keys[i] != null && hashes[i] == hash
+                        && !expiredNow(this, i))
+                {
+                    n++;
+                }
+            }
+            return n;
+        }
+        
+        /**
+         * Finds the slot holding a key within a range of slots.  The
+         * stored hashes act as tags: only a slot whose hash matches has
+         * its key read and compared, so a probe that misses never
+         * touches the key array or any key object.  An empty slot may
+         * keep a stale hash, but its key is null and never equal.
+         * @param start The first slot to search.
+         * @param end The slot after the last one to search.
+         * @param key The key.
+         * @param hash The mixed hash of the key.
+         * @return The index of the slot, or -1 if absent.
+         */
+        private int indexInRange(int start, int end, Object key, long hash)
+        {
+            for (int i = start; i < end; i++)
+            {
+                if (hashes[i] == hash && key.equals(keys[i]))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * Writes an entry into a slot.
+         * @param index The index of the slot.
+         * @param key The key.
+         * @param value The value.
+         * @param hash The mixed hash of the key.
+         */
+        void store(int index, Object key, Object value, long hash)
+        {
+            store(index, key, value, hash, 0);
+        }
+        
+        /**
+         * Writes an entry with a deadline into a slot.
+         * @param index The index of the slot.
+         * @param key The key.
+         * @param value The value.
+         * @param hash The mixed hash of the key.
+         * @param deadline When the entry expires, or 0 if it never does.
+         */
+        void store(int index, Object key, Object value, long hash,
+                long deadline)
+        {
+            keys[index] = key;
+            values[index] = value;
+            hashes[index] = hash;
+            occupied[index >>> 6] |= 1L << index;
+            if (deadlines != null)
+            {
+                deadlines[index] = deadline;
+            }
+        }
+        
+        /**
+         * Moves an entry to an empty slot.
+         * @param from The index of the occupied slot.
+         * @param to The index of the empty slot.
+         */
+        void move(int from, int to)
+        {
+            store(to, keys[from], values[from], hashes[from],
+                (deadlines != null) ? deadlines[from] : 0);
+            vacate(from);
+            values[from] = null;
+        }
+        
+        /**
+         * Offers an entry to one bucket: replaces the value if the key is
+         * already there, else takes the first free slot.
+         * @param bucket The bucket.
+         * @param key The key.
+         * @param value The value.
+         * @param hash The mixed hash of the key.
+         * @return 1 if placed, 0 if replaced, -1 if the bucket is full.
+         */
+        int offer(int bucket, Object key, Object value, long hash)
+        {
+            int start = bucket * slots;
+            int index = indexInRange(start, start + slots, key, hash);
+            if (index >= 0)
+            {
+                values[index] = value;
+                return 0;
+            }
+            for (int i = start; i < start + slots; i++)
+            {
+                if (keys[i] == null)
+                {
+                    store(i, key, value, hash);
+                    return 1;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * Empties a slot.  If a bucket slot is freed, a stashed entry
+         * belonging to that bucket is moved back into it.
+         * @param index The index of the slot.
+         */
+        void remove(int index)
+        {
+            vacate(index);
+            values[index] = null;
+            if (index >= stashStart())
+            {
+                stashed--;
+            }
+            else if (stashed > 0)
+            {
+                unstash(index);
+            }
+        }
+        
+        /**
+         * Moves a stashed entry into a freed bucket slot if that slot
+         * lies in one of the entry's buckets.
+         * @param index The index of the freed slot.
+         */
+        private void unstash(int index)
+        {
+            int bucket = index / slots;
+            for (int i = stashStart(); i < keys.length; i++)
+            {
+                if (keys[i] == null)
+                {
+                    continue;
+                }
+                if (h1(hashes[i]) == bucket || h2(hashes[i]) == bucket)
+                {
+                    move(i, index);
+                    stashed--;
+                    return;
+                }
+            }
+        }
+        
+        /**
+         * Marks a slot empty, leaving its value to the caller.
+         * @param index The index of the slot.
+         */
+        void vacate(int index)
+        {
+            keys[index] = null;
+            occupied[index >>> 6] &= ~(1L << index);
+        }
+        
+        /**
+         * Finds the first occupied slot at or after an index.  Whole
+         * words of the occupancy bitmap are skipped at a time, so
+         * walking a sparse table costs little more than its entries.
+         * @param index The slot to start from.
+         * @return The index of the slot, or -1 if there is none.
+         */
+        int nextOccupied(int index)
+        {
+            return nextOccupied(index, keys.length);
+        }
+        
+        /**
+         * Finds the first occupied slot in a range.
+         * @param index The slot to start from.
+         * @param end The slot after the last one to consider.
+         * @return The index of the slot, or -1 if there is none.
+         */
+        int nextOccupied(int index, int end)
+        {
+            if (index >= end)
+            {
+                return -1;
+            }
+            int word = index >>> 6;
+            int last = (end - 1) >>> 6;
+            long bits = occupied[word] & (-1L << index);
+            while (bits == 0)
+            {
+                if (++word > last)
+                {
+                    return -1;
+                }
+                bits = occupied[word];
+            }
+            int found = (word << 6) + Long.numberOfTrailingZeros(bits);
+            return (found < end) ? found : -1;
+        }
+        
+        /**
+         * Scans every occupied slot for a value.
+         * @param value The value.
+         * @return True if present, else false.
+         */
+        boolean containsValue(Object value)
+        {
+            for (int i = nextOccupied(0); i >= 0; i = nextOccupied(i + 1))
+            {
+                if (values[i].equals(value))
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+    
+    /**
+     * Runs an action over a range of indices, splitting the range in
+     * half until the pieces are small enough.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private static final class Split extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final int grain;
+        private final IntConsumer action;
+        
+        /**
+         * Creates a task for a range.
+         * @param start The first index.
+         * @param end The index after the last.
+         * @param grainSize The largest range run without splitting.
+         * @param task The action.
+         */
+        Split(int start, int end, int grainSize, IntConsumer task)
+        {
+            from = start;
+            to = end;
+            grain = grainSize;
+            action = task;
+        }
+        
+        /** 
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        protected void compute()
+        {
+            if (to - from <= grain)
+            {
+                for (int i = from; i < to; i++)
+                {
+                    action.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Split(from, mid, grain, action),
+                new Split(mid, to, grain, action));
+        }
+    }
+    
+    /**
+     * Path search over the slots of the current table.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class PathSearch extends CuckooPathSearch
+    {
+        /**
+         * Creates a search for this map's bucket size.
+         * @param maxDisplacements The maximum cuckoo path length.
+         */
+        PathSearch(int maxDisplacements)
+        {
+            super(slots, maxDisplacements);
+        }
+        
+        /** 
+         * @see CuckooPathSearch#isFree(int)
+         * @param slot The index of the slot.
+         * @return True if empty, else false.
+         */
+        boolean isFree(int slot)
+        {
+            return table.keys[slot] == null || expired(table, slot, now);
+        }
+        
+        /** 
+         * @see CuckooPathSearch#alternateBucket(int)
+         * @param slot The index of an occupied slot.
+         * @return The other bucket of the entry.
+         */
+        int alternateBucket(int slot)
+        {
+            long hash = table.hashes[slot];
+            int b1 = table.h1(hash);
+            return (b1 == slot / slots) ? table.h2(hash) : b1;
+        }
+    }
+    
+    /**
+     * Inner class for entries.  Entries are views created on demand;
+     * setting the value writes through to the map.
+     * @author Patrick Parker
+     * @version Nov 27, 2016
+     *
+     */
+    public class MapEntry implements Entry<K, V>
+    {
+        private K key;
+        private V value;
+ 
+        /**
+         * Creates a MapEntry.
+         * 
+         * @param akey the key
+         * @param avalue the value
+         */
+        public MapEntry(K akey, V avalue)
+        {
+            this.key = akey;
+            this.value = avalue;
+        }
+
+        /**
+         * Returns the key for this entry.
+         * 
+         * @see java.util.Map$Entry#getKey()
+         * @return the key for this entry
+         */
+        public K getKey()
+        {
+            return key;
+        }
+
+        /**
+         * Returns the value for this entry.
+         * 
+         * @see java.util.Map$Entry#getValue()
+         * @return the value for this entry
+         */
+        public V getValue()
+        {
+            return value;
+        }
+
+        /**
+         * Sets the value for this entry.
+         * 
+         * @see java.util.Map$Entry#setValue(V)
+         * @param newValue New value.
+         * @return the previous value for this entry.
+         */
+        public V setValue(V newValue)
+        {
+            long hash = strategy.hash(key.hashCode());
+            Table t = table;
+            int index = t.indexOf(key, hash);
+            if (index < 0 && oldTable != null)
+            {
+                t = oldTable;
+                index = t.indexOf(key, hash);
+            }
+            if (index >= 0)
+            {
+                if (log != null)
+                {
+                    log.put(key, newValue);
+                }
+                replaceValue(t, index, newValue);
+                if (log != null)
+                {
+                    log.commit();
+                }
+            }
+            V oldVal = value;
+            value = newValue;
+            return oldVal;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package cuckoohashmap;
+
+import java.util.Arrays;
+
+/**
+ * Breadth-first search for the shortest chain of displacements that
+ * frees a slot in one of a key's two buckets, as done by MemC3 and
+ * libcuckoo.  The search only reads the table; the caller performs the
+ * moves afterwards, starting from the free end of the path.
+ * <p>
+ * A path is a list of slot indices.  The entry in each slot moves to
+ * the slot that follows it, the last slot is empty, and the first slot
+ * lies in one of the two starting buckets and is freed for the new key.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+abstract class CuckooPathSearch
+{
+    /** Upper bound on the number of buckets visited by one search. */
+    private static final int MAX_NODES = 2048;
+    
+    private final int slots;
+    private final int maxDepth;
+    private final int capacity;
+    private final int[] nodeBucket;
+    private final int[] nodeVia;
+    private final int[] nodeParent;
+    private final int[] nodeDepth;
+    private final int[] seen;
+    private final int[] seenStamp;
+    private int stamp;
+    private final int[] path;
+    
+    /**
+     * Creates a search for tables with the given bucket size.
+     * @param slotsPerBucket The number of slots in each bucket.
+     * @param maxDisplacements The most entries a single insert may move.
+     */
+    CuckooPathSearch(int slotsPerBucket, int maxDisplacements)
+    {
+        if (maxDisplacements < 0)
+        {
+            throw new IllegalArgumentException();
+        }
+        slots = slotsPerBucket;
+        maxDepth = maxDisplacements;
+        long nodes = 2;
+        long level = 2;
+        for (int d = 0; d < maxDepth && nodes < MAX_NODES; d++)
+        {
+            level *= slots;
+            nodes += level;
+        }
+        capacity = (int) Math.min(nodes, MAX_NODES);
+        nodeBucket = new int[capacity];
+        nodeVia = new int[capacity];
+        nodeParent = new int[capacity];
+        nodeDepth = new int[capacity];
+        seen = new int[Integer.highestOneBit(capacity) * 4];
+        seenStamp = new int[seen.length];
+        path = new int[maxDepth + 1];
+    }
+    
+    /**
+     * Returns whether a slot is empty.
+     * @param slot The index of the slot.
+     * @return True if empty, else false.
+     */
+    abstract boolean isFree(int slot);
+    
+    /**
+     * Returns the other bucket of the entry held in a slot.
+     * @param slot The index of an occupied slot.
+     * @return The bucket the entry would be displaced to.
+     */
+    abstract int alternateBucket(int slot);
+    
+    /**
+     * Returns the most entries a single insert may move.
+     * @return The maximum path depth.
+     */
+    int maxDepth()
+    {
+        return maxDepth;
+    }
+    
+    /**
+     * Searches for the shortest path from either bucket to a free slot.
+     * @param b1 The first bucket of the new key.
+     * @param b2 The second bucket of the new key.
+     * @return The number of slots in the path, or -1 if no free slot
+     *     is reachable within the maximum depth.
+     */
+    int search(int b1, int b2)
+    {
+        if (++stamp == 0)
+        {
+            Arrays.fill(seenStamp, 0);
+            stamp = 1;
+        }
+        int tail = 0;
+        tail = enqueue(tail, b1, -1, -1, 0);
+        tail = enqueue(tail, b2, -1, -1, 0);
+        for (int head = 0; head < tail; head++)
+        {
+            int start = nodeBucket[head] * slots;
+            for (int s = start; s < start + slots; s++)
+            {
+                if (isFree(s))
+                {
+                    return buildPath(head, s);
+                }
+            }
+            if (nodeDepth[head] == maxDepth)
+            {
+                continue;
+            }
+            for (int s = start; s < start + slots && tail < capacity; s++)
+            {
+                tail = enqueue(tail, alternateBucket(s), s, head,
+                    nodeDepth[head] + 1);
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Returns a slot of the path found by the last search.
+     * @param i The position in the path.
+     * @return The index of the slot.
+     */
+    int slotAt(int i)
+    {
+        return path[i];
+    }
+    
+    /**
+     * Adds a bucket to the queue unless it was already visited.
+     * @param tail The current end of the queue.
+     * @param bucket The bucket.
+     * @param via The slot whose entry would move into the bucket.
+     * @param parent The node holding that slot.
+     * @param depth The number of moves needed to reach the bucket.
+     * @return The new end of the queue.
+     */
+    private int enqueue(int tail, int bucket, int via, int parent, int depth)
+    {
+        int mask = seen.length - 1;
+        int i = (bucket * 0x9E3779B9) >>> 16 & mask;
+        while (seenStamp[i] == stamp)
+        {
+            if (seen[i] == bucket)
+            {
+                return tail;
+            }
+            i = (i + 1) & mask;
+        }
+        seen[i] = bucket;
+        seenStamp[i] = stamp;
+        nodeBucket[tail] = bucket;
+        nodeVia[tail] = via;
+        nodeParent[tail] = parent;
+        nodeDepth[tail] = depth;
+        return tail + 1;
+    }
+    
+    /**
+     * Records the path leading to a free slot.
+     * @param node The node whose bucket holds the free slot.
+     * @param free The free slot.
+     * @return The number of slots in the path.
+     */
+    private int buildPath(int node, int free)
+    {
+        int length = nodeDepth[node] + 1;
+        path[length - 1] = free;
+        for (int i = length - 2; i >= 0; i--)
+        {
+            path[i] = nodeVia[node];
+            node = nodeParent[node];
+        }
+        return length;
+    }
+}
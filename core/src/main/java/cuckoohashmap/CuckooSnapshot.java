@@ -0,0 +1,498 @@
+package cuckoohashmap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.BiConsumer;
+
+/**
+ * Read-only view of a CuckooHashMap saved to a file and mapped back
+ * into memory.  The file holds the table exactly as it was laid out,
+ * together with the number of buckets and the hash seed, so opening a
+ * snapshot neither hashes nor moves a single entry: lookups go straight
+ * to the mapped slots and the operating system pages the table in as
+ * it is touched.  toMap() turns a snapshot back into a mutable map,
+ * again by copying slots rather than re-inserting them.
+ * <p>
+ * A file starts with a header of HEADER_BYTES bytes: magic, format
+ * version, buckets, slots per bucket, stash size, entry count, hash
+ * strategy, key and value widths and the seed.  The slots follow in
+ * table order, each holding a used flag, the key's hash code, the
+ * encoded key and the encoded value.  Keys are compared by their
+ * encoded bytes, so the key codec must encode equal keys identically.
+ * Only MurmurHashStrategy and TabulationHashStrategy can be saved,
+ * since the strategy must be rebuilt from its seed.
+ * <p>
+ * A snapshot keeps no scratch state: each lookup encodes the key into
+ * a buffer of its own, so any number of threads may read it at once.
+ * Only close() must not race with readers.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ * @param <K> Class variable for keys.
+ * @param <V> Class variable for values.
+ */
+public final class CuckooSnapshot<K, V> implements AutoCloseable
+{
+    /** Identifies a snapshot file ("CKOO"). */
+    private static final int MAGIC = 0x434B4F4F;
+    /** Version of the file layout written by this class. */
+    private static final int VERSION = 1;
+    /** Bytes before the first slot. */
+    private static final int HEADER_BYTES = 64;
+    /** Bytes before the key in a slot: used flag and hash code. */
+    private static final int SLOT_HEADER = 5;
+    /** Largest region mapped for one page of slots. */
+    private static final int MAX_PAGE_BYTES = 1 << 30;
+    /** Size of the buffer used while writing. */
+    private static final int WRITE_BUFFER = 1 << 16;
+    /** Strategy code for MurmurHashStrategy. */
+    private static final byte MURMUR = 1;
+    /** Strategy code for TabulationHashStrategy. */
+    private static final byte TABULATION = 2;
+
+    private final FixedWidthCodec<K> keyCodec;
+    private final FixedWidthCodec<V> valueCodec;
+    private final int keyWidth;
+    private final int slotBytes;
+    private final int pageShift;
+    private final int buckets;
+    private final int slots;
+    private final int slotCount;
+    private final int size;
+    private final HashStrategy strategy;
+    private ByteBuffer[] pages;
+
+    /**
+     * Maps an opened snapshot file.
+     * @param channel The open file.
+     * @param header The header, already read.
+     * @param keys Decodes the keys.
+     * @param values Decodes the values.
+     * @throws IOException If the file cannot be mapped.
+     */
+    private CuckooSnapshot(FileChannel channel, ByteBuffer header,
+            FixedWidthCodec<K> keys, FixedWidthCodec<V> values)
+        throws IOException
+    {
+        keyCodec = keys;
+        valueCodec = values;
+        keyWidth = keys.width();
+        slotBytes = SLOT_HEADER + keyWidth + values.width();
+        pageShift = 31 - Integer.numberOfLeadingZeros(
+            MAX_PAGE_BYTES / slotBytes);
+        buckets = header.getInt(8);
+        slots = header.getInt(12);
+        slotCount = buckets * slots + header.getInt(16);
+        size = header.getInt(20);
+        strategy = strategyOf(header.get(24), header.getLong(40));
+        if (channel.size() < HEADER_BYTES + (long) slotCount * slotBytes)
+        {
+            throw new IOException("truncated snapshot");
+        }
+        int perPage = 1 << pageShift;
+        pages = new ByteBuffer[(slotCount + perPage - 1) >>> pageShift];
+        for (int i = 0; i < pages.length; i++)
+        {
+            long n = Math.min(perPage, slotCount - (long) i * perPage);
+            pages[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                HEADER_BYTES + (long) i * perPage * slotBytes,
+                n * slotBytes);
+        }
+    }
+
+    /**
+     * Saves the table of a map.  The file is written next to its
+     * destination and moved into place once complete, so a crash never
+     * leaves a partial snapshot under the requested name.
+     * @param file The destination.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @param hashStrategy The strategy that placed the keys.
+     * @param keys Keys by slot, null where the slot is empty.
+     * @param values Values by slot.
+     * @param count The number of entries.
+     * @param keyCodec Encodes the keys.
+     * @param valueCodec Encodes the values.
+     * @param <K> Class variable for keys.
+     * @param <V> Class variable for values.
+     * @throws IOException If the file cannot be written.
+     */
+    @SuppressWarnings("unchecked")
+    static <K, V> void write(Path file, int numBuckets, int slotsPerBucket,
+            HashStrategy hashStrategy, Object[] keys, Object[] values,
+            int count, FixedWidthCodec<K> keyCodec,
+            FixedWidthCodec<V> valueCodec)
+        throws IOException
+    {
+        byte kind;
+        long seed;
+        if (hashStrategy instanceof MurmurHashStrategy)
+        {
+            kind = MURMUR;
+            seed = ((MurmurHashStrategy) hashStrategy).getSeed();
+        }
+        else if (hashStrategy instanceof TabulationHashStrategy)
+        {
+            kind = TABULATION;
+            seed = ((TabulationHashStrategy) hashStrategy).getSeed();
+        }
+        else
+        {
+            throw new IllegalArgumentException(
+                "hash strategy cannot be saved");
+        }
+        int keyWidth = keyCodec.width();
+        int slotBytes = SLOT_HEADER + keyWidth + valueCodec.width();
+        ByteBuffer buffer = ByteBuffer.allocate(
+            Math.max(WRITE_BUFFER, HEADER_BYTES + slotBytes));
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, numBuckets);
+        buffer.putInt(12, slotsPerBucket);
+        buffer.putInt(16, keys.length - numBuckets * slotsPerBucket);
+        buffer.putInt(20, count);
+        buffer.put(24, kind);
+        buffer.putInt(28, keyWidth);
+        buffer.putInt(32, valueCodec.width());
+        buffer.putLong(40, seed);
+        int used = HEADER_BYTES;
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            for (int i = 0; i < keys.length; i++)
+            {
+                if (used + slotBytes > buffer.capacity())
+                {
+                    drain(channel, buffer, used);
+                    used = 0;
+                }
+                for (int j = 0; j < slotBytes; j++)
+                {
+                    buffer.put(used + j, (byte) 0);
+                }
+                if (keys[i] != null)
+                {
+                    buffer.put(used, (byte) 1);
+                    buffer.putInt(used + 1, keys[i].hashCode());
+                    keyCodec.write(buffer, used + SLOT_HEADER, (K) keys[i]);
+                    valueCodec.write(buffer, used + SLOT_HEADER + keyWidth,
+                        (V) values[i]);
+                }
+                used += slotBytes;
+            }
+            drain(channel, buffer, used);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the first bytes of a buffer to a channel.
+     * @param channel The channel.
+     * @param buffer The buffer.
+     * @param length The number of bytes to write.
+     * @throws IOException If the write fails.
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer,
+            int length)
+        throws IOException
+    {
+        buffer.clear().limit(length);
+        while (buffer.hasRemaining())
+        {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Opens a snapshot written by CuckooHashMap.writeSnapshot.  The
+     * file is mapped, not read, so this takes time independent of the
+     * number of entries.
+     * @param file The snapshot file.
+     * @param keys Decodes the keys; must match the codec it was saved
+     *     with.
+     * @param values Decodes the values; must match the codec it was
+     *     saved with.
+     * @param <K> Class variable for keys.
+     * @param <V> Class variable for values.
+     * @return The snapshot.
+     * @throws IOException If the file cannot be read or is not a
+     *     snapshot of a supported version.
+     */
+    public static <K, V> CuckooSnapshot<K, V> open(Path file,
+            FixedWidthCodec<K> keys, FixedWidthCodec<V> values)
+        throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.READ))
+        {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining())
+            {
+                if (channel.read(header) < 0)
+                {
+                    break;
+                }
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC)
+            {
+                throw new IOException("not a cuckoo snapshot: " + file);
+            }
+            if (header.getInt(4) != VERSION)
+            {
+                throw new IOException("unsupported snapshot version "
+                    + header.getInt(4));
+            }
+            if (header.getInt(28) != keys.width()
+                    || header.getInt(32) != values.width())
+            {
+                throw new IllegalArgumentException(
+                    "codec widths do not match the snapshot");
+            }
+            // The mapping stays valid after the channel is closed.
+            return new CuckooSnapshot<K, V>(channel, header, keys, values);
+        }
+    }
+
+    /**
+     * Rebuilds the strategy a snapshot was written with.
+     * @param kind The strategy code.
+     * @param seed The seed.
+     * @return The strategy.
+     * @throws IOException If the code is unknown.
+     */
+    private static HashStrategy strategyOf(byte kind, long seed)
+        throws IOException
+    {
+        switch (kind)
+        {
+            case MURMUR:
+                return new MurmurHashStrategy(seed);
+            case TABULATION:
+                return new TabulationHashStrategy(seed);
+            default:
+                throw new IOException("unknown hash strategy " + kind);
+        }
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return The size of the snapshot.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns whether the snapshot is empty.
+     * @return True if empty, else false.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value of a key.
+     * @param key The key.
+     * @return The value, or null if absent.
+     */
+    public V get(K key)
+    {
+        int slot = find(key);
+        return (slot < 0) ? null : readValue(slot);
+    }
+
+    /**
+     * Returns whether a key is present.
+     * @param key The key.
+     * @return True if present, else false.
+     */
+    public boolean containsKey(K key)
+    {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Passes every entry to an action, in slot order.
+     * @param action The action.
+     */
+    public void forEach(BiConsumer<? super K, ? super V> action)
+    {
+        ensureOpen();
+        for (int i = 0; i < slotCount; i++)
+        {
+            ByteBuffer page = page(i);
+            int off = offset(i);
+            if (page.get(off) != 0)
+            {
+                action.accept(keyCodec.read(page, off + SLOT_HEADER),
+                    readValue(i));
+            }
+        }
+    }
+
+    /**
+     * Copies the snapshot into a new map with the same buckets and hash
+     * seed.  Every entry is written to the slot it occupies in the
+     * file, so nothing is hashed or displaced.
+     * @return The map.
+     */
+    public CuckooHashMap<K, V> toMap()
+    {
+        ensureOpen();
+        CuckooHashMap<K, V> map = new CuckooHashMap<K, V>(buckets, slots,
+            strategy);
+        for (int i = 0; i < slotCount; i++)
+        {
+            ByteBuffer page = page(i);
+            int off = offset(i);
+            if (page.get(off) != 0)
+            {
+                map.restore(i, keyCodec.read(page, off + SLOT_HEADER),
+                    readValue(i), page.getInt(off + 1));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Unmaps the file.  Closing twice has no effect.
+     */
+    public void close()
+    {
+        if (pages != null)
+        {
+            OffHeapCuckooHashMap.free(pages);
+            pages = null;
+        }
+    }
+
+    /**
+     * Encodes a key into a buffer of its own and finds its slot in
+     * either bucket or in the stash.
+     * @param key The key.
+     * @return The index of the slot, or -1 if absent.
+     */
+    private int find(K key)
+    {
+        ensureOpen();
+        int code = key.hashCode();
+        ByteBuffer probe = ByteBuffer.allocate(keyWidth);
+        keyCodec.write(probe, 0, key);
+        long hash = strategy.hash(code);
+        int b1 = (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32) * slots;
+        int slot = indexInRange(b1, b1 + slots, code, probe);
+        if (slot < 0)
+        {
+            int b2 = (int) (((hash >>> 32) * buckets) >>> 32) * slots;
+            slot = indexInRange(b2, b2 + slots, code, probe);
+        }
+        if (slot < 0)
+        {
+            slot = indexInRange(buckets * slots, slotCount, code, probe);
+        }
+        return slot;
+    }
+
+    /**
+     * Finds the slot of an encoded key within a range.
+     * @param start The first slot to search.
+     * @param end The slot after the last one to search.
+     * @param code The hash code of the key.
+     * @param probe The encoded key.
+     * @return The index of the slot, or -1 if absent.
+     */
+    private int indexInRange(int start, int end, int code, ByteBuffer probe)
+    {
+        for (int i = start; i < end; i++)
+        {
+            ByteBuffer page = page(i);
+            int off = offset(i);
+            if (page.get(off) != 0 && page.getInt(off + 1) == code
+                    && keyMatches(page, off + SLOT_HEADER, probe))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares stored key bytes with an encoded key.
+     * @param page The page holding the key.
+     * @param off The position of the key.
+     * @param probe The encoded key.
+     * @return True if the bytes are equal, else false.
+     */
+    private boolean keyMatches(ByteBuffer page, int off, ByteBuffer probe)
+    {
+        int i = 0;
+        for (; i + Long.BYTES <= keyWidth; i += Long.BYTES)
+        {
+            if (page.getLong(off + i) != probe.getLong(i))
+            {
+                return false;
+            }
+        }
+        for (; i < keyWidth; i++)
+        {
+            if (page.get(off + i) != probe.get(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the value of a slot.
+     * @param slot The index of the slot.
+     * @return The value.
+     */
+    private V readValue(int slot)
+    {
+        return valueCodec.read(page(slot),
+            offset(slot) + SLOT_HEADER + keyWidth);
+    }
+
+    /**
+     * Returns the page holding a slot.
+     * @param slot The index of the slot.
+     * @return The page.
+     */
+    private ByteBuffer page(int slot)
+    {
+        return pages[slot >>> pageShift];
+    }
+
+    /**
+     * Returns the position of a slot within its page.
+     * @param slot The index of the slot.
+     * @return The position of the slot's first byte.
+     */
+    private int offset(int slot)
+    {
+        return (slot & ((1 << pageShift) - 1)) * slotBytes;
+    }
+
+    /**
+     * Throws if the snapshot was closed.
+     */
+    private void ensureOpen()
+    {
+        if (pages == null)
+        {
+            throw new IllegalStateException("closed");
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package cuckoohashmap;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters describing how a cuckoo map behaves: lookups that hit and
+ * miss, how far each insert had to displace entries, how often keys
+ * overflow into the stash, how often and how long the table grows,
+ * and how many entries a bounded CuckooCache has evicted.  Occupancy
+ * figures are read from the map when asked for.  Counters are
+ * LongAdders, so recording stays cheap even when several threads read
+ * a map at once.
+ * <p>
+ * A map only records while its statistics are enabled.  register()
+ * publishes the counters as an MXBean so they can be watched and
+ * alerted on with any JMX client.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+public final class CuckooStats implements CuckooStatsMXBean
+{
+    /** Length of the displacement histogram. */
+    private static final int HISTOGRAM_LENGTH = 16;
+    
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder[] displacements;
+    private final LongAdder stashInserts;
+    private final LongAdder evictions;
+    private final LongAdder resizes;
+    private final LongAdder resizeNanos;
+    private final LongAccumulator maxResizeNanos;
+    private final IntSupplier size;
+    private final IntSupplier capacity;
+    private final IntSupplier stashed;
+    private final LongSupplier valueIndexBytes;
+    private ObjectName name;
+    
+    /**
+     * Creates zeroed statistics reading occupancy from a map.
+     * @param sizeOf Returns the number of entries.
+     * @param capacityOf Returns the number of bucket slots.
+     * @param stashedOf Returns the number of stashed entries.
+     * @param indexBytesOf Returns the size of the value index.
+     */
+    CuckooStats(IntSupplier sizeOf, IntSupplier capacityOf,
+            IntSupplier stashedOf, LongSupplier indexBytesOf)
+    {
+        hits = new LongAdder();
+        misses = new LongAdder();
+        displacements = new LongAdder[HISTOGRAM_LENGTH];
+        for (int i = 0; i < HISTOGRAM_LENGTH; i++)
+        {
+            displacements[i] = new LongAdder();
+        }
+        stashInserts = new LongAdder();
+        evictions = new LongAdder();
+        resizes = new LongAdder();
+        resizeNanos = new LongAdder();
+        maxResizeNanos = new LongAccumulator(Math::max, 0);
+        size = sizeOf;
+        capacity = capacityOf;
+        stashed = stashedOf;
+        valueIndexBytes = indexBytesOf;
+    }
+    
+    /**
+     * Records a lookup.
+     * @param found True if the key was present, else false.
+     */
+    void recordLookup(boolean found)
+    {
+        (found ? hits : misses).increment();
+    }
+    
+    /**
+     * Records an insert that moved entries to make room.
+     * @param moved The number of entries moved.
+     */
+    void recordDisplacements(int moved)
+    {
+        displacements[Math.min(moved, HISTOGRAM_LENGTH - 1)].increment();
+    }
+    
+    /**
+     * Records an insert that went to the stash.
+     */
+    void recordStash()
+    {
+        stashInserts.increment();
+    }
+    
+    /**
+     * Records an entry evicted from a bounded cache.
+     */
+    void recordEviction()
+    {
+        evictions.increment();
+    }
+    
+    /**
+     * Records a resize.
+     * @param nanos How long it took.
+     */
+    void recordResize(long nanos)
+    {
+        resizes.increment();
+        resizeNanos.add(nanos);
+        maxResizeNanos.accumulate(nanos);
+    }
+    
+    /**
+     * Registers these statistics with the platform MBean server under
+     * cuckoohashmap:type=CuckooStats,name=<i>name</i>, replacing any
+     * earlier registration of this object.
+     * @param mapName Distinguishes this map from others.
+     * @return The name registered.
+     * @throws JMException If the name is invalid or already taken.
+     */
+    public synchronized ObjectName register(String mapName)
+        throws JMException
+    {
+        unregister();
+        ObjectName objectName = new ObjectName("cuckoohashmap:type="
+            + "CuckooStats,name=" + ObjectName.quote(mapName));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+            objectName);
+        name = objectName;
+        return objectName;
+    }
+    
+    /**
+     * Removes the registration made by register, if any.
+     * @throws JMException If the server refuses.
+     */
+    public synchronized void unregister() throws JMException
+    {
+        if (name != null)
+        {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name))
+            {
+                server.unregisterMBean(name);
+            }
+            name = null;
+        }
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getHits()
+     * @return The hit count.
+     */
+    public long getHits()
+    {
+        return hits.sum();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getMisses()
+     * @return The miss count.
+     */
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getHitRatio()
+     * @return The hit ratio, or 0 if there were no lookups.
+     */
+    public double getHitRatio()
+    {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return (total == 0) ? 0 : (double) h / total;
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getDisplacementHistogram()
+     * @return Insert counts indexed by the number of entries moved.
+     */
+    public long[] getDisplacementHistogram()
+    {
+        long[] result = new long[HISTOGRAM_LENGTH];
+        for (int i = 0; i < HISTOGRAM_LENGTH; i++)
+        {
+            result[i] = displacements[i].sum();
+        }
+        return result;
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getStashInserts()
+     * @return The stash insert count.
+     */
+    public long getStashInserts()
+    {
+        return stashInserts.sum();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getStashed()
+     * @return The stash occupancy.
+     */
+    public int getStashed()
+    {
+        return stashed.getAsInt();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getEvictions()
+     * @return The eviction count.
+     */
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getResizeCount()
+     * @return The resize count.
+     */
+    public long getResizeCount()
+    {
+        return resizes.sum();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getResizeNanos()
+     * @return The time in nanoseconds.
+     */
+    public long getResizeNanos()
+    {
+        return resizeNanos.sum();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getMaxResizeNanos()
+     * @return The time in nanoseconds.
+     */
+    public long getMaxResizeNanos()
+    {
+        return maxResizeNanos.get();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getSize()
+     * @return The size of the map.
+     */
+    public int getSize()
+    {
+        return size.getAsInt();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getCapacity()
+     * @return The capacity of the map.
+     */
+    public int getCapacity()
+    {
+        return capacity.getAsInt();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getLoadFactor()
+     * @return The load factor.
+     */
+    public double getLoadFactor()
+    {
+        return (double) getSize() / getCapacity();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#getValueIndexBytes()
+     * @return The estimate in bytes, or 0 if there is no index.
+     */
+    public long getValueIndexBytes()
+    {
+        return valueIndexBytes.getAsLong();
+    }
+    
+    /** 
+     * @see CuckooStatsMXBean#reset()
+     */
+    public void reset()
+    {
+        hits.reset();
+        misses.reset();
+        for (LongAdder adder : displacements)
+        {
+            adder.reset();
+        }
+        stashInserts.reset();
+        evictions.reset();
+        resizes.reset();
+        resizeNanos.reset();
+        maxResizeNanos.reset();
+    }
+    
+    /** 
+     * @see java.lang.Object#toString()
+     * @return A one-line summary.
+     */
+    public String toString()
+    {
+        return "CuckooStats[size=" + getSize() + ", load="
+            + String.format("%.3f", getLoadFactor()) + ", hits="
+            + getHits() + ", misses=" + getMisses() + ", stashed="
+            + getStashed() + ", resizes=" + getResizeCount() + "]";
+    }
+}
@@ -0,0 +1,104 @@
+package cuckoohashmap;
+
+/**
+ * Management interface of CuckooStats, as exposed over JMX.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+public interface CuckooStatsMXBean
+{
+    /**
+     * Returns the number of lookups that found their key.
+     * @return The hit count.
+     */
+    long getHits();
+    
+    /**
+     * Returns the number of lookups that did not find their key.
+     * @return The miss count.
+     */
+    long getMisses();
+    
+    /**
+     * Returns the fraction of lookups that found their key.
+     * @return The hit ratio, or 0 if there were no lookups.
+     */
+    double getHitRatio();
+    
+    /**
+     * Returns how many new keys needed each number of displacements.
+     * The last element counts every longer path as well.
+     * @return Insert counts indexed by the number of entries moved.
+     */
+    long[] getDisplacementHistogram();
+    
+    /**
+     * Returns the number of keys placed in the stash.
+     * @return The stash insert count.
+     */
+    long getStashInserts();
+    
+    /**
+     * Returns the number of entries currently in the stash.
+     * @return The stash occupancy.
+     */
+    int getStashed();
+    
+    /**
+     * Returns the number of entries a bounded cache dropped to make
+     * room for others.
+     * @return The eviction count.
+     */
+    long getEvictions();
+    
+    /**
+     * Returns how often the table has grown.  An incremental resize is
+     * counted once the last entry has left the old table.
+     * @return The resize count.
+     */
+    long getResizeCount();
+    
+    /**
+     * Returns the total time spent resizing.  For an incremental resize
+     * this is the time spent in all of its migration steps, which puts
+     * and removes pay for in small parts.
+     * @return The time in nanoseconds.
+     */
+    long getResizeNanos();
+    
+    /**
+     * Returns the longest single resize, timed as for getResizeNanos.
+     * @return The time in nanoseconds.
+     */
+    long getMaxResizeNanos();
+    
+    /**
+     * Returns the number of entries.
+     * @return The size of the map.
+     */
+    int getSize();
+    
+    /**
+     * Returns the number of bucket slots, not counting the stash.
+     * @return The capacity of the map.
+     */
+    int getCapacity();
+    
+    /**
+     * Returns the fraction of bucket slots in use.
+     * @return The load factor.
+     */
+    double getLoadFactor();
+    
+    /**
+     * Estimates the memory held by the value index, counting its slot
+     * arrays with compressed references.
+     * @return The estimate in bytes, or 0 if there is no index.
+     */
+    long getValueIndexBytes();
+    
+    /**
+     * Sets every counter back to zero.
+     */
+    void reset();
+}
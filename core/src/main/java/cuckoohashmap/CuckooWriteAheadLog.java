@@ -0,0 +1,421 @@
+package cuckoohashmap;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable CuckooHashMap backed by a directory holding a snapshot and
+ * an append-only log of the puts, removes and clears made since.  The
+ * map returned by map() records every mutation here before applying
+ * it; opening the directory again loads the snapshot and replays the
+ * log, so the map comes back as it was at the last sync.
+ * <p>
+ * Records are collected in memory and written as one checksummed
+ * batch, so many mutations share a single write and, depending on the
+ * FsyncPolicy, a single fsync.  A batch cut short by a crash fails its
+ * checksum and is dropped during recovery along with everything after
+ * it.  compact() folds the log into a new snapshot and empties it; it
+ * also runs on its own once the log passes the compaction threshold.
+ * Replaying a log over a snapshot that already contains it gives the
+ * same map, since every record sets a key's final state, so a crash
+ * between writing the snapshot and emptying the log is harmless.
+ * <p>
+ * The map encodes each record before it mutates anything and commits
+ * it only once the mutation has succeeded, so a key or value the
+ * codecs reject, or a mutation that throws or changes nothing, leaves
+ * no record behind.  Entries with a time to live are not supported,
+ * as deadlines are not recorded.
+ * <p>
+ * Failures to write the log are thrown from the map's methods as
+ * UncheckedIOException.  Like the map, the log is not thread-safe.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ * @param <K> Class variable for keys.
+ * @param <V> Class variable for values.
+ */
+public final class CuckooWriteAheadLog<K, V> implements AutoCloseable
+{
+    /** Buckets of the map created when there is no snapshot yet. */
+    private static final int INITIAL_BUCKETS = 16;
+    /** Default number of records written as one batch. */
+    private static final int DEFAULT_BATCH = 256;
+    /** Default log size that triggers compaction, in bytes. */
+    private static final long DEFAULT_COMPACTION = 64L << 20;
+    /** Bytes before the records of a batch: length and checksum. */
+    private static final int BATCH_HEADER = 8;
+    /** Record code of a put. */
+    private static final byte PUT = 1;
+    /** Record code of a remove. */
+    private static final byte REMOVE = 2;
+    /** Record code of a clear. */
+    private static final byte CLEAR = 3;
+
+    /**
+     * When batches written to the log are forced to the storage device.
+     */
+    public enum FsyncPolicy
+    {
+        /** Every mutation is written and forced before it returns. */
+        ALWAYS,
+        /** Each full batch is written and forced as one group commit. */
+        BATCH,
+        /** Full batches are written but only forced by sync or close. */
+        NEVER
+    }
+
+    private final Path snapshotFile;
+    private final FixedWidthCodec<K> keyCodec;
+    private final FixedWidthCodec<V> valueCodec;
+    private final int keyWidth;
+    private final int recordBytes;
+    private final FsyncPolicy policy;
+    private final FileChannel channel;
+    private final CRC32C crc;
+    private final CuckooHashMap<K, V> map;
+    private ByteBuffer batch;
+    private int used;
+    private long logBytes;
+    private long compactionThreshold;
+
+    /**
+     * Opens the log of a directory and recovers its map.
+     * @param dir The directory.
+     * @param keys Encodes the keys.
+     * @param values Encodes the values.
+     * @param fsyncPolicy When batches are forced to the device.
+     * @throws IOException If the files cannot be read.
+     */
+    private CuckooWriteAheadLog(Path dir, FixedWidthCodec<K> keys,
+            FixedWidthCodec<V> values, FsyncPolicy fsyncPolicy)
+        throws IOException
+    {
+        snapshotFile = dir.resolve("snapshot");
+        keyCodec = keys;
+        valueCodec = values;
+        keyWidth = keys.width();
+        recordBytes = 1 + keyWidth + values.width();
+        policy = fsyncPolicy;
+        crc = new CRC32C();
+        compactionThreshold = DEFAULT_COMPACTION;
+        batch = ByteBuffer.allocate(BATCH_HEADER + DEFAULT_BATCH
+            * recordBytes);
+        used = BATCH_HEADER;
+        if (Files.exists(snapshotFile))
+        {
+            try (CuckooSnapshot<K, V> snapshot = CuckooSnapshot.open(
+                snapshotFile, keys, values))
+            {
+                map = snapshot.toMap();
+            }
+        }
+        else
+        {
+            map = new CuckooHashMap<K, V>(INITIAL_BUCKETS);
+        }
+        channel = FileChannel.open(dir.resolve("wal"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        replay();
+        map.setLog(this);
+    }
+
+    /**
+     * Opens a durable map stored in a directory, creating it if needed.
+     * @param dir The directory.
+     * @param keys Encodes the keys.
+     * @param values Encodes the values.
+     * @param fsyncPolicy When batches are forced to the device.
+     * @param <K> Class variable for keys.
+     * @param <V> Class variable for values.
+     * @return The log, whose map holds the recovered entries.
+     * @throws IOException If the files cannot be read.
+     */
+    public static <K, V> CuckooWriteAheadLog<K, V> open(Path dir,
+            FixedWidthCodec<K> keys, FixedWidthCodec<V> values,
+            FsyncPolicy fsyncPolicy)
+        throws IOException
+    {
+        Files.createDirectories(dir);
+        return new CuckooWriteAheadLog<K, V>(dir, keys, values,
+            fsyncPolicy);
+    }
+
+    /**
+     * Returns the map whose mutations are logged.
+     * @return The map.
+     */
+    public CuckooHashMap<K, V> map()
+    {
+        return map;
+    }
+
+    /**
+     * Sets how many records are collected before a batch is written.
+     * Records already collected are written first.
+     * @param records The number of records per batch.
+     * @throws IOException If the pending batch cannot be written.
+     */
+    public void setBatchSize(int records) throws IOException
+    {
+        if (records < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+        flush(false);
+        batch = ByteBuffer.allocate(BATCH_HEADER + records * recordBytes);
+    }
+
+    /**
+     * Sets the log size at which the next mutation compacts the log
+     * into a snapshot first.
+     * @param bytes The size in bytes.
+     */
+    public void setCompactionThreshold(long bytes)
+    {
+        compactionThreshold = bytes;
+    }
+
+    /**
+     * Returns the number of bytes written to the log since it was last
+     * compacted.
+     * @return The size of the log.
+     */
+    public long logSize()
+    {
+        return logBytes;
+    }
+
+    /**
+     * Writes any pending records and forces the log to the device, so
+     * every mutation made so far survives a crash.
+     * @throws IOException If the log cannot be written.
+     */
+    public void sync() throws IOException
+    {
+        flush(true);
+    }
+
+    /**
+     * Writes the map to a new snapshot and empties the log.
+     * @throws IOException If the files cannot be written.
+     */
+    public void compact() throws IOException
+    {
+        sync();
+        map.writeSnapshot(snapshotFile, keyCodec, valueCodec);
+        channel.truncate(0);
+        channel.force(true);
+        logBytes = 0;
+    }
+
+    /**
+     * Syncs and closes the log.  The map stays usable but its later
+     * mutations are no longer recorded.
+     * @throws IOException If the log cannot be written.
+     */
+    public void close() throws IOException
+    {
+        if (channel.isOpen())
+        {
+            sync();
+            map.setLog(null);
+            channel.close();
+        }
+    }
+
+    /**
+     * Encodes a put as the pending record, to be kept by commit.
+     * @param key The key.
+     * @param value The value.
+     */
+    void put(K key, V value)
+    {
+        int off = reserve(PUT);
+        keyCodec.write(batch, off + 1, key);
+        valueCodec.write(batch, off + 1 + keyWidth, value);
+    }
+
+    /**
+     * Encodes a remove as the pending record, to be kept by commit.
+     * @param key The key.
+     */
+    void remove(K key)
+    {
+        int off = reserve(REMOVE);
+        keyCodec.write(batch, off + 1, key);
+    }
+
+    /**
+     * Encodes a clear as the pending record, to be kept by commit.
+     */
+    void clear()
+    {
+        reserve(CLEAR);
+    }
+
+    /**
+     * Makes room for a record, compacting first if the log has grown
+     * past the threshold, and writes its code just past the records
+     * kept so far.  The record stays pending until commit, so a record
+     * that fails to encode, or whose mutation is abandoned, is simply
+     * overwritten by the next one.
+     * @param code The record code.
+     * @return The position of the record in the batch.
+     */
+    private int reserve(byte code)
+    {
+        try
+        {
+            if (logBytes >= compactionThreshold)
+            {
+                compact();
+            }
+            if (used + recordBytes > batch.capacity())
+            {
+                flush(policy != FsyncPolicy.NEVER);
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+        int off = used;
+        batch.put(off, code);
+        for (int i = off + 1; i < off + recordBytes; i++)
+        {
+            batch.put(i, (byte) 0);
+        }
+        return off;
+    }
+
+    /**
+     * Keeps the pending record once its mutation has been applied,
+     * writing it at once under FsyncPolicy.ALWAYS.
+     */
+    void commit()
+    {
+        used += recordBytes;
+        if (policy == FsyncPolicy.ALWAYS)
+        {
+            try
+            {
+                flush(true);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Appends the pending records to the log as one batch.
+     * @param force True to force the log to the device.
+     * @throws IOException If the log cannot be written.
+     */
+    private void flush(boolean force) throws IOException
+    {
+        if (used > BATCH_HEADER)
+        {
+            crc.reset();
+            crc.update(batch.array(), BATCH_HEADER, used - BATCH_HEADER);
+            batch.putInt(0, used - BATCH_HEADER);
+            batch.putInt(4, (int) crc.getValue());
+            batch.clear().limit(used);
+            while (batch.hasRemaining())
+            {
+                logBytes += channel.write(batch, logBytes);
+            }
+            batch.clear();
+            used = BATCH_HEADER;
+        }
+        if (force)
+        {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Applies every intact batch of the log to the map and cuts off the
+     * first damaged one and anything after it.
+     * @throws IOException If the log cannot be read.
+     */
+    @SuppressWarnings("unchecked")
+    private void replay() throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(BATCH_HEADER);
+        long position = 0;
+        long end = channel.size();
+        while (position + BATCH_HEADER <= end)
+        {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            if (length <= 0 || length % recordBytes != 0
+                    || position + BATCH_HEADER + length > end)
+            {
+                break;
+            }
+            ByteBuffer records = ByteBuffer.allocate(length);
+            readFully(records, position + BATCH_HEADER);
+            crc.reset();
+            crc.update(records.array(), 0, length);
+            if ((int) crc.getValue() != header.getInt(4))
+            {
+                break;
+            }
+            for (int off = 0; off < length; off += recordBytes)
+            {
+                byte code = records.get(off);
+                if (code == CLEAR)
+                {
+                    map.clear();
+                    continue;
+                }
+                K key = keyCodec.read(records, off + 1);
+                if (code == PUT)
+                {
+                    map.put(key, valueCodec.read(records, off + 1
+                        + keyWidth));
+                }
+                else
+                {
+                    map.remove(key);
+                }
+            }
+            position += BATCH_HEADER + length;
+        }
+        if (position < end)
+        {
+            channel.truncate(position);
+            channel.force(true);
+        }
+        logBytes = position;
+    }
+
+    /**
+     * Fills a buffer from the log.
+     * @param buffer The buffer.
+     * @param position The position in the log to read from.
+     * @throws IOException If the log cannot be read.
+     */
+    private void readFully(ByteBuffer buffer, long position)
+        throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            int n = channel.read(buffer, position);
+            if (n < 0)
+            {
+                throw new IOException("unexpected end of log");
+            }
+            position += n;
+        }
+    }
+}
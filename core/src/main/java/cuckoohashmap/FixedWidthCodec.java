@@ -0,0 +1,73 @@
+package cuckoohashmap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes values of one type into a fixed number of bytes, so they can
+ * be stored in slots of a flat byte table.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ * @param <T> Class variable for encoded values.
+ */
+public interface FixedWidthCodec<T>
+{
+    /** Codec for Long values, 8 bytes. */
+    FixedWidthCodec<Long> LONG = new FixedWidthCodec<Long>()
+    {
+        public int width()
+        {
+            return Long.BYTES;
+        }
+        
+        public void write(ByteBuffer buffer, int offset, Long value)
+        {
+            buffer.putLong(offset, value);
+        }
+        
+        public Long read(ByteBuffer buffer, int offset)
+        {
+            return buffer.getLong(offset);
+        }
+    };
+    
+    /** Codec for Integer values, 4 bytes. */
+    FixedWidthCodec<Integer> INTEGER = new FixedWidthCodec<Integer>()
+    {
+        public int width()
+        {
+            return Integer.BYTES;
+        }
+        
+        public void write(ByteBuffer buffer, int offset, Integer value)
+        {
+            buffer.putInt(offset, value);
+        }
+        
+        public Integer read(ByteBuffer buffer, int offset)
+        {
+            return buffer.getInt(offset);
+        }
+    };
+    
+    /**
+     * Returns the number of bytes every encoded value takes.
+     * @return The width in bytes.
+     */
+    int width();
+    
+    /**
+     * Encodes a value at an absolute position.
+     * @param buffer The buffer.
+     * @param offset The position of the first byte.
+     * @param value The value.
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+    
+    /**
+     * Decodes a value from an absolute position.
+     * @param buffer The buffer.
+     * @param offset The position of the first byte.
+     * @return The value.
+     */
+    T read(ByteBuffer buffer, int offset);
+}
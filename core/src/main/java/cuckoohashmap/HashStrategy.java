@@ -0,0 +1,33 @@
+package cuckoohashmap;
+
+/**
+ * Family of hash functions used to place keys in a cuckoo table.
+ * A strategy turns a single hashCode() into 64 well mixed bits; the
+ * lower and upper halves are used independently to choose a key's two
+ * candidate buckets, so keys that collide on one bucket are unlikely
+ * to collide on the other.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+public interface HashStrategy
+{
+    /**
+     * Mixes a key's hash code.
+     * @param hashCode The hash code of the key.
+     * @return 64 bits whose two halves are independent of each other.
+     */
+    long hash(int hashCode);
+    
+    /**
+     * Mixes a primitive long key.  The default mixes the upper half of
+     * the key first and mixes the result into the lower half, so keys
+     * that Long.hashCode would fold together, such as those whose two
+     * halves are equal, still get unrelated hashes.
+     * @param key The key.
+     * @return 64 bits whose two halves are independent of each other.
+     */
+    default long hashLong(long key)
+    {
+        return hash((int) key ^ (int) hash((int) (key >>> 32)));
+    }
+}
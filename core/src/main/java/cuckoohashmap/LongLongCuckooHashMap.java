@@ -0,0 +1,230 @@
+package cuckoohashmap;
+
+import java.util.Arrays;
+
+/**
+ * Cuckoo hash map from primitive long keys to long values.  Keys and
+ * values live in two flat arrays using the bucket layout, hash
+ * strategy, displacement search and doubling resize of CuckooHashMap,
+ * so nothing is boxed and an entry costs 16 bytes of table.
+ * <p>
+ * A slot whose key is 0 is empty.  The key 0 itself is still allowed;
+ * its entry is kept in a field beside the table.  Lookups of absent
+ * keys return 0, so use containsKey or getOrDefault to tell them apart.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+public class LongLongCuckooHashMap extends PrimitiveCuckooTable
+{
+    private long[] values;
+    private long emptyKeyValue;
+
+    /**
+     * Constructor for long to long cuckoo hash map.
+     * @param numBuckets The number of buckets.
+     */
+    public LongLongCuckooHashMap(int numBuckets)
+    {
+        this(numBuckets, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Constructor for long to long cuckoo hash map with set-associative
+     * buckets.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     */
+    public LongLongCuckooHashMap(int numBuckets, int slotsPerBucket)
+    {
+        this(numBuckets, slotsPerBucket, new MurmurHashStrategy());
+    }
+
+    /**
+     * Constructor for long to long cuckoo hash map with a custom hash
+     * family.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @param hashStrategy Mixes keys into bucket choices.
+     */
+    public LongLongCuckooHashMap(int numBuckets, int slotsPerBucket,
+            HashStrategy hashStrategy)
+    {
+        super(numBuckets, slotsPerBucket, hashStrategy);
+        values = new long[keys.length];
+    }
+
+    /**
+     * Returns the value of a key.
+     * @param key The key.
+     * @return The value, or 0 if absent.
+     */
+    public long get(long key)
+    {
+        return getOrDefault(key, 0L);
+    }
+
+    /**
+     * Returns the value of a key, or a default if it is absent.
+     * @param key The key.
+     * @param defaultValue The value to return if the key is absent.
+     * @return The value.
+     */
+    public long getOrDefault(long key, long defaultValue)
+    {
+        if (key == EMPTY)
+        {
+            return hasEmptyKey ? emptyKeyValue : defaultValue;
+        }
+        int index = indexOf(key);
+        return (index < 0) ? defaultValue : values[index];
+    }
+
+    /**
+     * Returns whether a key is present.
+     * @param key The key.
+     * @return True if present, else false.
+     */
+    public boolean containsKey(long key)
+    {
+        return contains(key);
+    }
+
+    /**
+     * Maps a key to a value.
+     * @param key The key.
+     * @param value The value.
+     * @return The value replaced, or 0 if the key was absent.
+     * @throws IllegalArgumentException If too many keys share the
+     *     key's hash for it ever to be placed.
+     */
+    public long put(long key, long value)
+    {
+        if (key == EMPTY)
+        {
+            long oldValue = emptyKeyValue;
+            setEmptyKey(true);
+            emptyKeyValue = value;
+            return oldValue;
+        }
+        int index = indexOf(key);
+        if (index >= 0)
+        {
+            long oldValue = values[index];
+            values[index] = value;
+            return oldValue;
+        }
+        int slot = add(key);
+        values[slot] = value;
+        return 0L;
+    }
+
+    /**
+     * Removes a key.
+     * @param key The key.
+     * @return The value that was removed, or 0 if the key was absent.
+     */
+    public long remove(long key)
+    {
+        if (key == EMPTY)
+        {
+            long oldValue = emptyKeyValue;
+            setEmptyKey(false);
+            emptyKeyValue = 0L;
+            return oldValue;
+        }
+        int index = indexOf(key);
+        if (index < 0)
+        {
+            return 0L;
+        }
+        long oldValue = values[index];
+        removeAt(index);
+        return oldValue;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear()
+    {
+        super.clear();
+        Arrays.fill(values, 0L);
+        emptyKeyValue = 0L;
+    }
+
+    /**
+     * Passes every entry to an action.
+     * @param action The action.
+     */
+    public void forEach(EntryConsumer action)
+    {
+        if (hasEmptyKey)
+        {
+            action.accept(EMPTY, emptyKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] != EMPTY)
+            {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * @see PrimitiveCuckooTable#moveValue(int, int)
+     * @param from The index of the occupied slot.
+     * @param to The index of the empty slot.
+     */
+    void moveValue(int from, int to)
+    {
+        values[to] = values[from];
+    }
+
+    /**
+     * @see PrimitiveCuckooTable#clearValue(int)
+     * @param slot The index of the slot.
+     */
+    void clearValue(int slot)
+    {
+        values[slot] = 0L;
+    }
+
+    /**
+     * @see PrimitiveCuckooTable#swapValues(int)
+     * @param length The number of slots in the new table.
+     * @return The old value array.
+     */
+    Object swapValues(int length)
+    {
+        long[] oldValues = values;
+        values = new long[length];
+        return oldValues;
+    }
+
+    /**
+     * @see PrimitiveCuckooTable#restoreValue(Object, int, int)
+     * @param oldValues The old value array.
+     * @param from The index of the slot in the old array.
+     * @param to The index of the slot in the current one.
+     */
+    void restoreValue(Object oldValues, int from, int to)
+    {
+        values[to] = ((long[]) oldValues)[from];
+    }
+
+    /**
+     * Action applied to each entry by forEach.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    public interface EntryConsumer
+    {
+        /**
+         * Accepts an entry.
+         * @param key The key.
+         * @param value The value.
+         */
+        void accept(long key, long value);
+    }
+}
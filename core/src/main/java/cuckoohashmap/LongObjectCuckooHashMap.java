@@ -0,0 +1,235 @@
+package cuckoohashmap;
+
+import java.util.Arrays;
+
+/**
+ * Cuckoo hash map from primitive long keys to object values.  Keys live
+ * in a flat long array beside an array of values, using the bucket
+ * layout, hash strategy, displacement search and doubling resize of
+ * CuckooHashMap, so keys are never boxed.
+ * <p>
+ * A slot whose key is 0 is empty.  The key 0 itself is still allowed;
+ * its entry is kept in a field beside the table.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ * @param <V> Class variable for values.
+ */
+public class LongObjectCuckooHashMap<V> extends PrimitiveCuckooTable
+{
+    private Object[] values;
+    private V emptyKeyValue;
+
+    /**
+     * Constructor for long to object cuckoo hash map.
+     * @param numBuckets The number of buckets.
+     */
+    public LongObjectCuckooHashMap(int numBuckets)
+    {
+        this(numBuckets, DEFAULT_SLOTS);
+    }
+
+    /**
+     * Constructor for long to object cuckoo hash map with
+     * set-associative buckets.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     */
+    public LongObjectCuckooHashMap(int numBuckets, int slotsPerBucket)
+    {
+        this(numBuckets, slotsPerBucket, new MurmurHashStrategy());
+    }
+
+    /**
+     * Constructor for long to object cuckoo hash map with a custom hash
+     * family.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @param hashStrategy Mixes keys into bucket choices.
+     */
+    public LongObjectCuckooHashMap(int numBuckets, int slotsPerBucket,
+            HashStrategy hashStrategy)
+    {
+        super(numBuckets, slotsPerBucket, hashStrategy);
+        values = new Object[keys.length];
+    }
+
+    /**
+     * Returns the value of a key.
+     * @param key The key.
+     * @return The value, or null if absent.
+     */
+    public V get(long key)
+    {
+        return getOrDefault(key, null);
+    }
+
+    /**
+     * Returns the value of a key, or a default if it is absent.
+     * @param key The key.
+     * @param defaultValue The value to return if the key is absent.
+     * @return The value.
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue)
+    {
+        if (key == EMPTY)
+        {
+            return hasEmptyKey ? emptyKeyValue : defaultValue;
+        }
+        int index = indexOf(key);
+        return (index < 0) ? defaultValue : (V) values[index];
+    }
+
+    /**
+     * Returns whether a key is present.
+     * @param key The key.
+     * @return True if present, else false.
+     */
+    public boolean containsKey(long key)
+    {
+        return contains(key);
+    }
+
+    /**
+     * Maps a key to a value.
+     * @param key The key.
+     * @param value The value.
+     * @return The value replaced, or null if the key was absent.
+     * @throws IllegalArgumentException If too many keys share the
+     *     key's hash for it ever to be placed.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value)
+    {
+        if (key == EMPTY)
+        {
+            V oldValue = emptyKeyValue;
+            setEmptyKey(true);
+            emptyKeyValue = value;
+            return oldValue;
+        }
+        int index = indexOf(key);
+        if (index >= 0)
+        {
+            V oldValue = (V) values[index];
+            values[index] = value;
+            return oldValue;
+        }
+        int slot = add(key);
+        values[slot] = value;
+        return null;
+    }
+
+    /**
+     * Removes a key.
+     * @param key The key.
+     * @return The value that was removed, or null if the key was absent.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key)
+    {
+        if (key == EMPTY)
+        {
+            V oldValue = emptyKeyValue;
+            setEmptyKey(false);
+            emptyKeyValue = null;
+            return oldValue;
+        }
+        int index = indexOf(key);
+        if (index < 0)
+        {
+            return null;
+        }
+        V oldValue = (V) values[index];
+        removeAt(index);
+        return oldValue;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear()
+    {
+        super.clear();
+        Arrays.fill(values, null);
+        emptyKeyValue = null;
+    }
+
+    /**
+     * Passes every entry to an action.
+     * @param action The action.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action)
+    {
+        if (hasEmptyKey)
+        {
+            action.accept(EMPTY, emptyKeyValue);
+        }
+        for (int i = 0; i < keys.length; i++)
+        {
+            if (keys[i] != EMPTY)
+            {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * @see PrimitiveCuckooTable#moveValue(int, int)
+     * @param from The index of the occupied slot.
+     * @param to The index of the empty slot.
+     */
+    void moveValue(int from, int to)
+    {
+        values[to] = values[from];
+    }
+
+    /**
+     * @see PrimitiveCuckooTable#clearValue(int)
+     * @param slot The index of the slot.
+     */
+    void clearValue(int slot)
+    {
+        values[slot] = null;
+    }
+
+    /**
+     * @see PrimitiveCuckooTable#swapValues(int)
+     * @param length The number of slots in the new table.
+     * @return The old value array.
+     */
+    Object swapValues(int length)
+    {
+        Object[] oldValues = values;
+        values = new Object[length];
+        return oldValues;
+    }
+
+    /**
+     * @see PrimitiveCuckooTable#restoreValue(Object, int, int)
+     * @param oldValues The old value array.
+     * @param from The index of the slot in the old array.
+     * @param to The index of the slot in the current one.
+     */
+    void restoreValue(Object oldValues, int from, int to)
+    {
+        values[to] = ((Object[]) oldValues)[from];
+    }
+
+    /**
+     * Action applied to each entry by forEach.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     * @param <V> Class variable for values.
+     */
+    public interface EntryConsumer<V>
+    {
+        /**
+         * Accepts an entry.
+         * @param key The key.
+         * @param value The value.
+         */
+        void accept(long key, V value);
+    }
+}
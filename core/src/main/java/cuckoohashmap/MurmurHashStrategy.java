@@ -0,0 +1,75 @@
+package cuckoohashmap;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Seeded hash strategy based on the MurmurHash3 64-bit finalizer.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+public class MurmurHashStrategy implements HashStrategy
+{
+    private final long seed;
+    
+    /**
+     * Creates a strategy with a random seed.
+     */
+    public MurmurHashStrategy()
+    {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+    
+    /**
+     * Creates a strategy with a fixed seed.
+     * @param seed The seed.
+     */
+    public MurmurHashStrategy(long seed)
+    {
+        this.seed = seed;
+    }
+    
+    /**
+     * Returns the seed of this strategy.
+     * @return The seed.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+    
+    /** 
+     * @see HashStrategy#hash(int)
+     * @param hashCode The hash code of the key.
+     * @return The mixed hash.
+     */
+    public long hash(int hashCode)
+    {
+        return mix(seed ^ ((hashCode & 0xFFFFFFFFL) * 0x9E3779B97F4A7C15L));
+    }
+    
+    /** 
+     * Mixes all 64 bits of the key rather than folding it first.
+     * @see HashStrategy#hashLong(long)
+     * @param key The key.
+     * @return The mixed hash.
+     */
+    public long hashLong(long key)
+    {
+        return mix(seed ^ (key * 0x9E3779B97F4A7C15L));
+    }
+    
+    /**
+     * MurmurHash3 64-bit finalizer.
+     * @param x The value to mix.
+     * @return The mixed value.
+     */
+    private static long mix(long x)
+    {
+        x ^= x >>> 33;
+        x *= 0xFF51AFD7ED558CCDL;
+        x ^= x >>> 33;
+        x *= 0xC4CEB9FE1A85EC53L;
+        x ^= x >>> 33;
+        return x;
+    }
+}
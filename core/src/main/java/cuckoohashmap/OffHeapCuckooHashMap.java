@@ -0,0 +1,531 @@
+package cuckoohashmap;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+/**
+ * Cuckoo hash map whose table lives outside the Java heap, for keys
+ * and values of fixed width.  Slots are packed into direct byte
+ * buffers, so a table of any size costs the garbage collector only a
+ * handful of objects.  Placement uses the same buckets, hash strategy
+ * and displacement search as CuckooHashMap.
+ * <p>
+ * Each slot holds a used flag, the key's hash code, the encoded key
+ * and the encoded value.  Keys are compared by their encoded bytes,
+ * so the key codec must encode equal keys identically.  Null keys and
+ * values are not permitted.  Memory is released by close(); the map
+ * cannot be used afterwards.
+ * <p>
+ * Lookups encode the key into a buffer of their own, so any number of
+ * threads may call get and containsKey at once.  Mutations, and reads
+ * that run alongside them, need external synchronization.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ * @param <K> Class variable for keys.
+ * @param <V> Class variable for values.
+ */
+public class OffHeapCuckooHashMap<K, V> implements AutoCloseable
+{
+    /** Default number of entries held by each bucket. */
+    private static final int DEFAULT_SLOTS = 4;
+    /** Default limit on entries moved by a single insert. */
+    private static final int DEFAULT_MAX_PATH = 5;
+    /** Bytes before the key in a slot: used flag and hash code. */
+    private static final int HEADER = 5;
+    /** Largest buffer allocated for one page of slots. */
+    private static final int MAX_PAGE_BYTES = 1 << 30;
+
+    private final FixedWidthCodec<K> keyCodec;
+    private final FixedWidthCodec<V> valueCodec;
+    private final int keyWidth;
+    private final int slotBytes;
+    private final int pageShift;
+    private final int slots;
+    private final HashStrategy strategy;
+    private final PathSearch search;
+    private ByteBuffer[] pages;
+    private int buckets;
+    private int size;
+
+    /**
+     * Constructor for off-heap cuckoo hash map.
+     * @param numBuckets The number of buckets.
+     * @param keys Encodes the keys.
+     * @param values Encodes the values.
+     */
+    public OffHeapCuckooHashMap(int numBuckets, FixedWidthCodec<K> keys,
+            FixedWidthCodec<V> values)
+    {
+        this(numBuckets, DEFAULT_SLOTS, new MurmurHashStrategy(), keys,
+            values);
+    }
+
+    /**
+     * Constructor for off-heap cuckoo hash map with custom buckets and
+     * hash family.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @param hashStrategy Mixes key hash codes into bucket choices.
+     * @param keys Encodes the keys.
+     * @param values Encodes the values.
+     */
+    public OffHeapCuckooHashMap(int numBuckets, int slotsPerBucket,
+            HashStrategy hashStrategy, FixedWidthCodec<K> keys,
+            FixedWidthCodec<V> values)
+    {
+        if (numBuckets < 1 || slotsPerBucket < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+        keyCodec = keys;
+        valueCodec = values;
+        keyWidth = keys.width();
+        slotBytes = HEADER + keyWidth + values.width();
+        pageShift = 31 - Integer.numberOfLeadingZeros(
+            MAX_PAGE_BYTES / slotBytes);
+        slots = slotsPerBucket;
+        strategy = hashStrategy;
+        buckets = numBuckets;
+        pages = allocate(numBuckets);
+        search = new PathSearch();
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return The size of the map.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns whether the map is empty.
+     * @return True if empty, else false.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value of a key.
+     * @param key The key.
+     * @return The value, or null if absent.
+     */
+    public V get(K key)
+    {
+        int slot = find(key);
+        return (slot < 0) ? null : readValue(slot);
+    }
+
+    /**
+     * Returns whether a key is present.
+     * @param key The key.
+     * @return True if present, else false.
+     */
+    public boolean containsKey(K key)
+    {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Maps a key to a value.
+     * @param key The key.
+     * @param value The value.
+     * @return The value replaced, or null if the key was absent.
+     * @throws IllegalArgumentException If too many keys share the
+     *     key's hash code for it ever to be placed.
+     */
+    public V put(K key, V value)
+    {
+        if (value == null)
+        {
+            throw new NullPointerException();
+        }
+        int slot = find(key);
+        if (slot >= 0)
+        {
+            V oldValue = readValue(slot);
+            valueCodec.write(page(slot), offset(slot) + HEADER + keyWidth,
+                value);
+            return oldValue;
+        }
+        ByteBuffer entry = ByteBuffer.allocate(slotBytes);
+        entry.put(0, (byte) 1);
+        entry.putInt(1, key.hashCode());
+        keyCodec.write(entry, HEADER, key);
+        valueCodec.write(entry, HEADER + keyWidth, value);
+        insert(entry, 0);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes a key.
+     * @param key The key.
+     * @return The value that was removed, or null if the key was absent.
+     */
+    public V remove(K key)
+    {
+        int slot = find(key);
+        if (slot < 0)
+        {
+            return null;
+        }
+        V value = readValue(slot);
+        page(slot).put(offset(slot), (byte) 0);
+        size--;
+        return value;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear()
+    {
+        ensureOpen();
+        for (int i = 0; i < buckets * slots; i++)
+        {
+            page(i).put(offset(i), (byte) 0);
+        }
+        size = 0;
+    }
+
+    /**
+     * Releases the off-heap memory.  Closing twice has no effect.
+     */
+    public void close()
+    {
+        if (pages != null)
+        {
+            free(pages);
+            pages = null;
+            size = 0;
+        }
+    }
+
+    /**
+     * Encodes a key into a buffer of its own and finds its slot.
+     * @param key The key.
+     * @return The index of the slot, or -1 if absent.
+     */
+    private int find(K key)
+    {
+        ensureOpen();
+        int code = key.hashCode();
+        ByteBuffer probe = ByteBuffer.allocate(keyWidth);
+        keyCodec.write(probe, 0, key);
+        long hash = strategy.hash(code);
+        int slot = indexInBucket(h1(hash), code, probe);
+        return (slot < 0) ? indexInBucket(h2(hash), code, probe) : slot;
+    }
+
+    /**
+     * Finds the slot of an encoded key within a bucket.
+     * @param bucket The bucket.
+     * @param code The hash code of the key.
+     * @param probe The encoded key.
+     * @return The index of the slot, or -1 if absent.
+     */
+    private int indexInBucket(int bucket, int code, ByteBuffer probe)
+    {
+        int start = bucket * slots;
+        for (int i = start; i < start + slots; i++)
+        {
+            ByteBuffer page = page(i);
+            int off = offset(i);
+            if (page.get(off) != 0 && page.getInt(off + 1) == code
+                    && keyMatches(page, off + HEADER, probe))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares stored key bytes with an encoded key.
+     * @param page The page holding the key.
+     * @param off The position of the key.
+     * @param probe The encoded key.
+     * @return True if the bytes are equal, else false.
+     */
+    private boolean keyMatches(ByteBuffer page, int off, ByteBuffer probe)
+    {
+        int i = 0;
+        for (; i + Long.BYTES <= keyWidth; i += Long.BYTES)
+        {
+            if (page.getLong(off + i) != probe.getLong(i))
+            {
+                return false;
+            }
+        }
+        for (; i < keyWidth; i++)
+        {
+            if (page.get(off + i) != probe.get(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the value of a slot.
+     * @param slot The index of the slot.
+     * @return The value.
+     */
+    private V readValue(int slot)
+    {
+        return valueCodec.read(page(slot), offset(slot) + HEADER + keyWidth);
+    }
+
+    /**
+     * Places an encoded entry whose key is known to be absent, moving
+     * entries along the shortest displacement path and resizing if
+     * there is none.
+     * @param src The buffer holding the encoded slot.
+     * @param srcOff The position of the slot in the buffer.
+     */
+    private void insert(ByteBuffer src, int srcOff)
+    {
+        long hash = strategy.hash(src.getInt(srcOff + 1));
+        int length = search.search(h1(hash), h2(hash));
+        if (length < 0)
+        {
+            checkSeparable(hash);
+            resize();
+            insert(src, srcOff);
+            return;
+        }
+        for (int i = length - 1; i > 0; i--)
+        {
+            int from = search.slotAt(i - 1);
+            copy(page(from), offset(from), search.slotAt(i));
+        }
+        copy(src, srcOff, search.slotAt(0));
+    }
+
+    /**
+     * Throws if a resize could not make room for a key.  Keys whose
+     * hash codes mix to the same hash share both buckets at every size,
+     * so once they fill every slot they could use, growing the table
+     * would only repeat until memory ran out.
+     * @param hash The mixed hash of the key being placed.
+     * @throws IllegalArgumentException If the key can never be placed.
+     */
+    private void checkSeparable(long hash)
+    {
+        int b1 = h1(hash);
+        int b2 = h2(hash);
+        int members = countHash(b1, hash);
+        if (b2 != b1)
+        {
+            members += countHash(b2, hash);
+        }
+        if (members >= (((int) hash == (int) (hash >>> 32)) ? slots
+                : 2 * slots))
+        {
+            throw new IllegalArgumentException(
+                "too many keys with the same hash code");
+        }
+    }
+
+    /**
+     * Counts the entries with a given mixed hash within a bucket.
+     * @param bucket The bucket.
+     * @param hash The mixed hash.
+     * @return The number of entries.
+     */
+    private int countHash(int bucket, long hash)
+    {
+        int n = 0;
+        int start = bucket * slots;
+        for (int i = start; i < start + slots; i++)
+        {
+            ByteBuffer page = page(i);
+            int off = offset(i);
+            if (page.get(off) != 0
+                    && strategy.hash(page.getInt(off + 1)) == hash)
+            {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Copies an encoded slot into a slot of the table.
+     * @param src The buffer holding the encoded slot.
+     * @param srcOff The position of the slot in the buffer.
+     * @param slot The index of the destination slot.
+     */
+    private void copy(ByteBuffer src, int srcOff, int slot)
+    {
+        ByteBuffer dst = page(slot);
+        int dstOff = offset(slot);
+        for (int i = 0; i < slotBytes; i++)
+        {
+            dst.put(dstOff + i, src.get(srcOff + i));
+        }
+    }
+
+    /**
+     * Doubles the number of buckets, re-places every entry and frees
+     * the old pages.
+     */
+    private void resize()
+    {
+        ByteBuffer[] oldPages = pages;
+        int oldSlots = buckets * slots;
+        buckets *= 2;
+        pages = allocate(buckets);
+        int mask = (1 << pageShift) - 1;
+        for (int i = 0; i < oldSlots; i++)
+        {
+            ByteBuffer page = oldPages[i >>> pageShift];
+            int off = (i & mask) * slotBytes;
+            if (page.get(off) != 0)
+            {
+                insert(page, off);
+            }
+        }
+        free(oldPages);
+    }
+
+    /**
+     * Allocates zeroed pages for a table.
+     * @param numBuckets The number of buckets.
+     * @return The pages.
+     */
+    private ByteBuffer[] allocate(int numBuckets)
+    {
+        long total = (long) numBuckets * slots;
+        int perPage = 1 << pageShift;
+        int count = (int) ((total + perPage - 1) >>> pageShift);
+        ByteBuffer[] result = new ByteBuffer[count];
+        for (int i = 0; i < count; i++)
+        {
+            long n = Math.min(perPage, total - (long) i * perPage);
+            result[i] = ByteBuffer.allocateDirect((int) n * slotBytes);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the page holding a slot.
+     * @param slot The index of the slot.
+     * @return The page.
+     */
+    private ByteBuffer page(int slot)
+    {
+        return pages[slot >>> pageShift];
+    }
+
+    /**
+     * Returns the position of a slot within its page.
+     * @param slot The index of the slot.
+     * @return The position of the slot's first byte.
+     */
+    private int offset(int slot)
+    {
+        return (slot & ((1 << pageShift) - 1)) * slotBytes;
+    }
+
+    /**
+     * Throws if the map was closed.
+     */
+    private void ensureOpen()
+    {
+        if (pages == null)
+        {
+            throw new IllegalStateException("closed");
+        }
+    }
+
+    /**
+     * First hash function.
+     * @param hash The mixed hash of the key.
+     * @return The index of bucket.
+     */
+    private int h1(long hash)
+    {
+        return (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32);
+    }
+
+    /**
+     * Second hash function.
+     * @param hash The mixed hash of the key.
+     * @return The index of bucket.
+     */
+    private int h2(long hash)
+    {
+        return (int) (((hash >>> 32) * buckets) >>> 32);
+    }
+
+    /**
+     * Frees direct buffers right away where the runtime allows it;
+     * otherwise they are freed when collected.
+     * @param buffers The buffers, which must not be used afterwards.
+     */
+    static void free(ByteBuffer[] buffers)
+    {
+        try
+        {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            Object unsafe = field.get(null);
+            Method cleaner = unsafeClass.getMethod("invokeCleaner",
+                ByteBuffer.class);
+            for (ByteBuffer buffer : buffers)
+            {
+                cleaner.invoke(unsafe, buffer);
+            }
+        }
+        catch (ReflectiveOperationException | RuntimeException e)
+        {
+            return;
+        }
+    }
+
+    /**
+     * Path search over this map's pages.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class PathSearch extends CuckooPathSearch
+    {
+        /**
+         * Creates a search for this map's bucket size.
+         */
+        PathSearch()
+        {
+            super(slots, DEFAULT_MAX_PATH);
+        }
+
+        /**
+         * @see CuckooPathSearch#isFree(int)
+         * @param slot The index of the slot.
+         * @return True if empty, else false.
+         */
+        boolean isFree(int slot)
+        {
+            return page(slot).get(offset(slot)) == 0;
+        }
+
+        /**
+         * @see CuckooPathSearch#alternateBucket(int)
+         * @param slot The index of an occupied slot.
+         * @return The other bucket of the entry.
+         */
+        int alternateBucket(int slot)
+        {
+            long hash = strategy.hash(page(slot).getInt(offset(slot) + 1));
+            int b1 = h1(hash);
+            return (b1 == slot / slots) ? h2(hash) : b1;
+        }
+    }
+}
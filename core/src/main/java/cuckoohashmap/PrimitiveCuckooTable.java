@@ -0,0 +1,339 @@
+package cuckoohashmap;
+
+import java.util.Arrays;
+
+/**
+ * Table shared by the cuckoo hash maps with primitive keys.  Keys live
+ * in a flat long array, int keys widened, and this class does all the
+ * work that only concerns them: probing a key's two buckets, placing a
+ * new key along the shortest displacement path, and doubling the table
+ * when there is none.  Subclasses keep the values in a parallel array
+ * of their own type and move them as told.
+ * <p>
+ * A slot whose key is 0 is empty.  The key 0 itself is still allowed;
+ * whether it is present is tracked here, and its value is kept by the
+ * subclass in a field beside the table.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+abstract class PrimitiveCuckooTable
+{
+    /** Default number of entries held by each bucket. */
+    static final int DEFAULT_SLOTS = 4;
+    /** Key marking an empty slot. */
+    static final long EMPTY = 0;
+    /** Default limit on entries moved by a single insert. */
+    private static final int DEFAULT_MAX_PATH = 5;
+
+    /** Keys by slot, EMPTY where the slot is empty. */
+    long[] keys;
+    /** Whether the key 0 is present. */
+    boolean hasEmptyKey;
+    private int buckets;
+    private final int slots;
+    private int size;
+    private final HashStrategy strategy;
+    private final PathSearch search;
+
+    /**
+     * Creates an empty table.
+     * @param numBuckets The number of buckets.
+     * @param slotsPerBucket The number of entries each bucket holds.
+     * @param hashStrategy Mixes keys into bucket choices.
+     */
+    PrimitiveCuckooTable(int numBuckets, int slotsPerBucket,
+            HashStrategy hashStrategy)
+    {
+        if (numBuckets < 1 || slotsPerBucket < 1)
+        {
+            throw new IllegalArgumentException();
+        }
+        buckets = numBuckets;
+        slots = slotsPerBucket;
+        strategy = hashStrategy;
+        keys = new long[numBuckets * slotsPerBucket];
+        search = new PathSearch();
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return The size of the map.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns whether the map is empty.
+     * @return True if empty, else false.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear()
+    {
+        Arrays.fill(keys, EMPTY);
+        hasEmptyKey = false;
+        size = 0;
+    }
+
+    /**
+     * Returns whether a key is present, the key 0 included.
+     * @param key The key.
+     * @return True if present, else false.
+     */
+    final boolean contains(long key)
+    {
+        return (key == EMPTY) ? hasEmptyKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Finds the slot holding a key by checking both of its buckets.
+     * @param key The key, which must not be 0.
+     * @return The index of the slot, or -1 if absent.
+     */
+    final int indexOf(long key)
+    {
+        long hash = strategy.hashLong(key);
+        int start = h1(hash) * slots;
+        for (int i = start; i < start + slots; i++)
+        {
+            if (keys[i] == key)
+            {
+                return i;
+            }
+        }
+        start = h2(hash) * slots;
+        for (int i = start; i < start + slots; i++)
+        {
+            if (keys[i] == key)
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a key that is known to be absent, moving entries along the
+     * shortest displacement path and resizing if there is none.  The
+     * caller then stores the value in the slot returned, reading its
+     * value array only afterwards, since a resize replaces it.
+     * @param key The key, which must not be 0.
+     * @return The index of the key's slot.
+     * @throws IllegalArgumentException If too many keys share the
+     *     key's hash for it ever to be placed.
+     */
+    final int add(long key)
+    {
+        int slot = place(key);
+        size++;
+        return slot;
+    }
+
+    /**
+     * Records that the key 0 was added or removed.
+     * @param present True if it is now present, else false.
+     */
+    final void setEmptyKey(boolean present)
+    {
+        if (present != hasEmptyKey)
+        {
+            hasEmptyKey = present;
+            size += present ? 1 : -1;
+        }
+    }
+
+    /**
+     * Empties an occupied slot.
+     * @param slot The index of the slot.
+     */
+    final void removeAt(int slot)
+    {
+        keys[slot] = EMPTY;
+        clearValue(slot);
+        size--;
+    }
+
+    /**
+     * Copies a value to another slot, whose key has just been moved
+     * there.  The old slot is overwritten next, so need not be cleared.
+     * @param from The index of the occupied slot.
+     * @param to The index of the empty slot.
+     */
+    abstract void moveValue(int from, int to);
+
+    /**
+     * Clears the value of a slot.
+     * @param slot The index of the slot.
+     */
+    abstract void clearValue(int slot);
+
+    /**
+     * Replaces the value array with an empty one for a resized table.
+     * @param length The number of slots in the new table.
+     * @return The old value array.
+     */
+    abstract Object swapValues(int length);
+
+    /**
+     * Copies a value from the array of a table being resized.
+     * @param oldValues The old value array.
+     * @param from The index of the slot in the old array.
+     * @param to The index of the slot in the current one.
+     */
+    abstract void restoreValue(Object oldValues, int from, int to);
+
+    /**
+     * Places a key, displacing or resizing as needed, and stores it.
+     * @param key The key.
+     * @return The index of the key's slot.
+     */
+    private int place(long key)
+    {
+        long hash = strategy.hashLong(key);
+        int length = search.search(h1(hash), h2(hash));
+        while (length < 0)
+        {
+            checkSeparable(hash);
+            resize();
+            length = search.search(h1(hash), h2(hash));
+        }
+        for (int i = length - 1; i > 0; i--)
+        {
+            int from = search.slotAt(i - 1);
+            int to = search.slotAt(i);
+            keys[to] = keys[from];
+            moveValue(from, to);
+        }
+        int slot = search.slotAt(0);
+        keys[slot] = key;
+        return slot;
+    }
+
+    /**
+     * Throws if a resize could not make room for a key.  Keys with the
+     * same mixed hash share both buckets at every size, so once they
+     * fill every slot they could use, growing the table would only
+     * repeat until memory ran out.
+     * @param hash The mixed hash of the key being placed.
+     * @throws IllegalArgumentException If the key can never be placed.
+     */
+    private void checkSeparable(long hash)
+    {
+        int b1 = h1(hash);
+        int b2 = h2(hash);
+        int members = countHash(b1, hash);
+        if (b2 != b1)
+        {
+            members += countHash(b2, hash);
+        }
+        if (members >= (((int) hash == (int) (hash >>> 32)) ? slots
+                : 2 * slots))
+        {
+            throw new IllegalArgumentException(
+                "too many keys with the same hash code");
+        }
+    }
+
+    /**
+     * Counts the keys with a given mixed hash within a bucket.
+     * @param bucket The bucket.
+     * @param hash The mixed hash.
+     * @return The number of keys.
+     */
+    private int countHash(int bucket, long hash)
+    {
+        int n = 0;
+        for (int i = bucket * slots; i < (bucket + 1) * slots; i++)
+        {
+            if (keys[i] != EMPTY && strategy.hashLong(keys[i]) == hash)
+            {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Doubles the number of buckets and re-places every entry.
+     */
+    private void resize()
+    {
+        long[] oldKeys = keys;
+        buckets *= 2;
+        keys = new long[buckets * slots];
+        Object oldValues = swapValues(keys.length);
+        for (int i = 0; i < oldKeys.length; i++)
+        {
+            if (oldKeys[i] != EMPTY)
+            {
+                restoreValue(oldValues, i, place(oldKeys[i]));
+            }
+        }
+    }
+
+    /**
+     * First hash function.
+     * @param hash The mixed hash of the key.
+     * @return The index of bucket.
+     */
+    private int h1(long hash)
+    {
+        return (int) (((hash & 0xFFFFFFFFL) * buckets) >>> 32);
+    }
+
+    /**
+     * Second hash function.
+     * @param hash The mixed hash of the key.
+     * @return The index of bucket.
+     */
+    private int h2(long hash)
+    {
+        return (int) (((hash >>> 32) * buckets) >>> 32);
+    }
+
+    /**
+     * Path search over the key array.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private final class PathSearch extends CuckooPathSearch
+    {
+        /**
+         * Creates a search for this table's bucket size.
+         */
+        PathSearch()
+        {
+            super(slots, DEFAULT_MAX_PATH);
+        }
+
+        /**
+         * @see CuckooPathSearch#isFree(int)
+         * @param slot The index of the slot.
+         * @return True if empty, else false.
+         */
+        boolean isFree(int slot)
+        {
+            return keys[slot] == EMPTY;
+        }
+
+        /**
+         * @see CuckooPathSearch#alternateBucket(int)
+         * @param slot The index of an occupied slot.
+         * @return The other bucket of the entry.
+         */
+        int alternateBucket(int slot)
+        {
+            long hash = strategy.hashLong(keys[slot]);
+            int b1 = h1(hash);
+            return (b1 == slot / slots) ? h2(hash) : b1;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package cuckoohashmap;
+
+import java.util.SplittableRandom;
+
+/**
+ * Simple tabulation hashing: each byte of the hash code indexes its
+ * own table of random words and the words are xored together.  Long
+ * keys are hashed the same way over all eight of their bytes.  The
+ * result is 3-independent, which is enough for cuckoo hashing to
+ * behave as if the two bucket choices were truly random.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+public class TabulationHashStrategy implements HashStrategy
+{
+    private final long seed;
+    private final long[][] tables;
+    
+    /**
+     * Creates a strategy with a random seed.
+     */
+    public TabulationHashStrategy()
+    {
+        this(new SplittableRandom().nextLong());
+    }
+    
+    /**
+     * Creates a strategy whose tables are filled from a fixed seed.
+     * @param seed The seed.
+     */
+    public TabulationHashStrategy(long seed)
+    {
+        this.seed = seed;
+        SplittableRandom random = new SplittableRandom(seed);
+        tables = new long[8][256];
+        for (long[] table : tables)
+        {
+            for (int i = 0; i < table.length; i++)
+            {
+                table[i] = random.nextLong();
+            }
+        }
+    }
+    
+    /**
+     * Returns the seed the tables were filled from.
+     * @return The seed.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+    
+    /** 
+     * @see HashStrategy#hash(int)
+     * @param hashCode The hash code of the key.
+     * @return The mixed hash.
+     */
+    public long hash(int hashCode)
+    {
+        return tables[0][hashCode & 0xFF]
+            ^ tables[1][(hashCode >>> 8) & 0xFF]
+            ^ tables[2][(hashCode >>> 16) & 0xFF]
+            ^ tables[3][hashCode >>> 24];
+    }
+    
+    /** 
+     * Looks up each byte of the key rather than folding it first.
+     * @see HashStrategy#hashLong(long)
+     * @param key The key.
+     * @return The mixed hash.
+     */
+    public long hashLong(long key)
+    {
+        long hash = 0;
+        for (int i = 0; i < tables.length; i++)
+        {
+            hash ^= tables[i][(int) (key >>> (i * 8)) & 0xFF];
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,211 @@
+package cuckoohashmap;
+
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Hierarchical timer wheel holding the deadlines of entries with a
+ * time to live.  Time is cut into ticks of about a millisecond.  The
+ * lowest wheel has one bucket per tick for the next 64 ticks; each
+ * wheel above covers 64 times the span of the one below, and its
+ * buckets are poured into the wheel below as time reaches them.  A
+ * deadline is filed in constant time and moves down at most once per
+ * level, so expiring an entry costs constant amortised time however
+ * many entries are waiting.  Stretches of time in which the lower
+ * wheels are empty are skipped rather than stepped through, so an
+ * advance after a long idle spell costs at most a few hundred steps.
+ * <p>
+ * The wheel holds keys, not slots, since entries move between slots.
+ * Timers are never cancelled: when a key is overwritten or removed
+ * its old timer stays in the wheel, and the map ignores it when it
+ * fires because the deadline no longer matches.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ */
+final class TimerWheel
+{
+    /** Nanoseconds per tick, as a power of two: about 1 ms. */
+    private static final int TICK_SHIFT = 20;
+    /** Buckets per wheel, as a power of two. */
+    private static final int WHEEL_BITS = 6;
+    /** Buckets per wheel. */
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    /** Number of wheels, covering about five hours. */
+    private static final int LEVELS = 4;
+
+    private final Timer[][] wheels;
+    private final int[] counts;
+    private long current;
+    private int count;
+
+    /**
+     * Creates an empty wheel.  The current tick is the last one fired.
+     * @param now The current time in nanoseconds.
+     */
+    TimerWheel(long now)
+    {
+        wheels = new Timer[LEVELS][WHEEL_SIZE];
+        counts = new int[LEVELS];
+        current = (now >> TICK_SHIFT) - 1;
+    }
+
+    /**
+     * Returns the number of timers waiting, stale ones included.
+     * @return The number of timers.
+     */
+    int size()
+    {
+        return count;
+    }
+
+    /**
+     * Files a deadline.
+     * @param key The key whose entry expires.
+     * @param deadline The time it expires, in nanoseconds.
+     */
+    void schedule(Object key, long deadline)
+    {
+        add(new Timer(key, deadline), current + 1);
+        count++;
+    }
+
+    /**
+     * Moves time forward, firing every timer whose tick has wholly
+     * passed, so every deadline fired is at or before now.
+     * @param now The current time in nanoseconds.
+     * @param action Receives the key and deadline of each timer fired.
+     */
+    void advance(long now, ObjLongConsumer<Object> action)
+    {
+        long target = (now >> TICK_SHIFT) - 1;
+        if (count == 0)
+        {
+            current = Math.max(current, target);
+            return;
+        }
+        while (current < target && count > 0)
+        {
+            int level = 0;
+            while (counts[level] == 0)
+            {
+                level++;
+            }
+            if (level > 0)
+            {
+                // Nothing is due before the next bucket of that wheel.
+                long span = (1L << (WHEEL_BITS * level)) - 1;
+                current = Math.min(current | span, target);
+                if (current == target)
+                {
+                    break;
+                }
+            }
+            current++;
+            cascade(1);
+            Timer timer = wheels[0][(int) current & (WHEEL_SIZE - 1)];
+            wheels[0][(int) current & (WHEEL_SIZE - 1)] = null;
+            while (timer != null)
+            {
+                Timer next = timer.next;
+                count--;
+                counts[0]--;
+                action.accept(timer.key, timer.deadline);
+                timer = next;
+            }
+        }
+        current = Math.max(current, target);
+    }
+
+    /**
+     * Drops every timer.
+     */
+    void clear()
+    {
+        for (Timer[] wheel : wheels)
+        {
+            Arrays.fill(wheel, null);
+        }
+        Arrays.fill(counts, 0);
+        count = 0;
+    }
+
+    /**
+     * Pours the bucket of a wheel that the current tick has reached
+     * into the wheels below, starting with the wheels above it.
+     * @param level The wheel.
+     */
+    private void cascade(int level)
+    {
+        if (level == LEVELS
+            || (current & ((1L << (WHEEL_BITS * level)) - 1)) != 0)
+        {
+            return;
+        }
+        cascade(level + 1);
+        int bucket = (int) (current >> (WHEEL_BITS * level))
+            & (WHEEL_SIZE - 1);
+        Timer timer = wheels[level][bucket];
+        wheels[level][bucket] = null;
+        while (timer != null)
+        {
+            Timer next = timer.next;
+            counts[level]--;
+            add(timer, current);
+            timer = next;
+        }
+    }
+
+    /**
+     * Links a timer into the bucket of the lowest wheel that spans its
+     * tick.  A tick before the earliest one allowed is moved up to it,
+     * and one beyond the top wheel goes to the furthest bucket of it,
+     * to be filed again when that bucket is poured.
+     * @param timer The timer.
+     * @param earliest The first tick not yet fired.
+     */
+    private void add(Timer timer, long earliest)
+    {
+        long tick = Math.max(timer.deadline >> TICK_SHIFT, earliest);
+        long delta = tick - current;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS
+            * (level + 1)))
+        {
+            level++;
+        }
+        if (delta >= 1L << (WHEEL_BITS * LEVELS))
+        {
+            tick = current + (1L << (WHEEL_BITS * LEVELS)) - 1;
+        }
+        int bucket = (int) (tick >> (WHEEL_BITS * level)) & (WHEEL_SIZE - 1);
+        timer.next = wheels[level][bucket];
+        wheels[level][bucket] = timer;
+        counts[level]++;
+    }
+
+    /**
+     * A deadline waiting in a bucket.
+     * @author Patrick Parker
+     * @version Oct 17, 2026
+     */
+    private static final class Timer
+    {
+        /** The key whose entry expires */
+        final Object key;
+        /** The time it expires, in nanoseconds */
+        final long deadline;
+        /** The next timer in the bucket */
+        Timer next;
+
+        /**
+         * Creates a timer.
+         * @param akey The key.
+         * @param time The deadline.
+         */
+        Timer(Object akey, long time)
+        {
+            key = akey;
+            deadline = time;
+        }
+    }
+}
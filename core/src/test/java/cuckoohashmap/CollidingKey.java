@@ -0,0 +1,54 @@
+package cuckoohashmap;
+
+/**
+ * Test key whose hash code is chosen apart from its identity, so that
+ * tests can make unequal keys share a hash code, and with it both
+ * buckets and the mixed hash cached for a slot.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+final class CollidingKey
+{
+    private final int id;
+    private final int code;
+
+    /**
+     * Creates a key.
+     * @param keyId Identifies the key; keys are equal when ids are.
+     * @param hashCode The hash code of the key.
+     */
+    CollidingKey(int keyId, int hashCode)
+    {
+        id = keyId;
+        code = hashCode;
+    }
+
+    /**
+     * @see java.lang.Object#hashCode()
+     * @return The chosen hash code.
+     */
+    public int hashCode()
+    {
+        return code;
+    }
+
+    /**
+     * @see java.lang.Object#equals(java.lang.Object)
+     * @param o The other object.
+     * @return True if o is a key with the same id, else false.
+     */
+    public boolean equals(Object o)
+    {
+        return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+    }
+
+    /**
+     * @see java.lang.Object#toString()
+     * @return The id and hash code.
+     */
+    public String toString()
+    {
+        return id + "#" + code;
+    }
+}
@@ -0,0 +1,257 @@
+package cuckoohashmap;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for ConcurrentCuckooHashMap class.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class ConcurrentCuckooHashMapTest extends TestCase
+{
+    private ConcurrentCuckooHashMap<String, String> map;
+
+    /** Set up */
+    public void setUp()
+    {
+        map = new ConcurrentCuckooHashMap<String, String>(2);
+        assertTrue(map.isEmpty());
+        map.put("Bus", "Stop");
+        map.put("Key", "Door");
+        map.put("Pen", "Paper");
+        map.put("Glue", "Sticky");
+        map.put("Water", "Wet");
+        map.put("Rock", "Hard");
+        map.put("Air", "Light");
+        map.put("Salt", "Rock");
+    }
+
+    /** Tests put, get and remove. */
+    public void testPutGetRemove()
+    {
+        assertEquals(8, map.size());
+        assertEquals("Door", map.get("Key"));
+        assertEquals("Rock", map.get("Salt"));
+        assertNull(map.get("Hammer"));
+        assertEquals("Door", map.put("Key", "Lock"));
+        assertEquals("Lock", map.get("Key"));
+        assertEquals("Lock", map.remove("Key"));
+        assertNull(map.remove("Key"));
+        assertFalse(map.containsKey("Key"));
+        assertEquals(7, map.size());
+        assertTrue(map.containsValue("Hard"));
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("Bus"));
+
+        try
+        {
+            map.put(null, "Nothing");
+            fail();
+        }
+        catch (NullPointerException e)
+        {
+            assertTrue(true);
+        }
+    }
+
+    /** Tests the ConcurrentMap operations. */
+    public void testConcurrentMapOperations()
+    {
+        assertEquals("Stop", map.putIfAbsent("Bus", "Ride"));
+        assertNull(map.putIfAbsent("Car", "Drive"));
+        assertEquals("Drive", map.get("Car"));
+        assertFalse(map.remove("Car", "Walk"));
+        assertTrue(map.remove("Car", "Drive"));
+        assertFalse(map.containsKey("Car"));
+        assertFalse(map.replace("Pen", "Ink", "Pencil"));
+        assertTrue(map.replace("Pen", "Paper", "Pencil"));
+        assertEquals("Pencil", map.replace("Pen", "Paper"));
+        assertNull(map.replace("Car", "Drive"));
+        assertEquals("Paper", map.computeIfAbsent("Pen", k -> "Other"));
+        assertEquals("HardHard", map.merge("Rock", "Hard", String::concat));
+    }
+
+    /** Tests the entry set view. */
+    public void testEntrySet()
+    {
+        Map<String, String> copy = new HashMap<String, String>();
+        Iterator<Map.Entry<String, String>> itr = map.entrySet().iterator();
+        while (itr.hasNext())
+        {
+            Map.Entry<String, String> e = itr.next();
+            assertNull(copy.put(e.getKey(), e.getValue()));
+            if (e.getKey().equals("Air"))
+            {
+                itr.remove();
+            }
+            if (e.getKey().equals("Glue"))
+            {
+                e.setValue("Tacky");
+            }
+        }
+        assertEquals(8, copy.size());
+        assertEquals(7, map.size());
+        assertFalse(map.containsKey("Air"));
+        assertEquals("Tacky", map.get("Glue"));
+        assertEquals(7, map.keySet().size());
+        assertTrue(map.values().contains("Tacky"));
+    }
+
+    /** Tests writers and readers running at the same time. */
+    public void testConcurrentAccess() throws InterruptedException
+    {
+        final ConcurrentCuckooHashMap<Integer, Integer> nums =
+            new ConcurrentCuckooHashMap<Integer, Integer>(4);
+        final int perThread = 20000;
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final int id = t;
+            threads[t] = new Thread(() ->
+            {
+                for (int i = 0; i < perThread; i++)
+                {
+                    Integer key = id * perThread + i;
+                    if (id % 2 == 0)
+                    {
+                        nums.put(key, -key);
+                        if (i % 4 == 0)
+                        {
+                            nums.remove(key);
+                        }
+                    }
+                    else
+                    {
+                        Integer value = nums.get(key - perThread);
+                        if (value != null && value != -(key - perThread))
+                        {
+                            failure.set("Wrong value for " + key);
+                        }
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertNull(failure.get());
+        assertEquals(4 * perThread * 3 / 4, nums.size());
+        for (int t = 0; t < threads.length; t += 2)
+        {
+            for (int i = 0; i < perThread; i++)
+            {
+                Integer key = t * perThread + i;
+                assertEquals((i % 4 == 0) ? null : Integer.valueOf(-key),
+                    nums.get(key));
+            }
+        }
+    }
+
+    /**
+     * Tests unequal keys sharing a hash code, including slots emptied
+     * by remove that still hold the hash of the probe.
+     */
+    public void testCollidingKeys()
+    {
+        ConcurrentCuckooHashMap<CollidingKey, Integer> colliding =
+            new ConcurrentCuckooHashMap<CollidingKey, Integer>(4);
+        for (int id = 0; id < 20; id++)
+        {
+            assertNull(colliding.put(new CollidingKey(id, id % 4), id));
+        }
+        for (int id = 0; id < 20; id += 2)
+        {
+            assertEquals(Integer.valueOf(id),
+                colliding.remove(new CollidingKey(id, id % 4)));
+        }
+        for (int id = 0; id < 20; id++)
+        {
+            CollidingKey key = new CollidingKey(id, id % 4);
+            assertEquals(id % 2 == 1, colliding.containsKey(key));
+            assertEquals((id % 2 == 1) ? Integer.valueOf(id) : null,
+                colliding.get(key));
+        }
+        assertNull(colliding.get(new CollidingKey(20, 0)));
+        assertNull(colliding.remove(new CollidingKey(0, 0)));
+        assertEquals(10, colliding.size());
+    }
+
+    /**
+     * Tests refusing a key once more keys share its hash code than its
+     * two buckets hold, instead of resizing without end.
+     */
+    public void testInseparableKeys()
+    {
+        ConcurrentCuckooHashMap<Object, Integer> map =
+            new ConcurrentCuckooHashMap<Object, Integer>(4);
+        for (int i = 0; i < 1000; i++)
+        {
+            map.put(i, i);
+        }
+        for (int id = 0; id < 8; id++)
+        {
+            assertNull(map.put(new CollidingKey(id, -1), id));
+        }
+        try
+        {
+            map.put(new CollidingKey(8, -1), 8);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+        assertEquals(1008, map.size());
+        assertNull(map.get(new CollidingKey(8, -1)));
+        assertEquals(Integer.valueOf(3), map.put(new CollidingKey(3, -1), 4));
+        assertEquals(Integer.valueOf(0), map.remove(new CollidingKey(0, -1)));
+        assertNull(map.putIfAbsent(new CollidingKey(8, -1), 8));
+        for (int id = 1; id < 9; id++)
+        {
+            assertEquals(Integer.valueOf((id == 3) ? 4 : id),
+                map.get(new CollidingKey(id, -1)));
+        }
+    }
+
+    /**
+     * Tests that entries keep their cached hashes through displacement
+     * chains and resizes, using a hash strategy that crowds every
+     * first bucket into an eighth of the table.
+     */
+    public void testCrowdedHashes()
+    {
+        MurmurHashStrategy murmur = new MurmurHashStrategy(5);
+        ConcurrentCuckooHashMap<Integer, Integer> crowded =
+            new ConcurrentCuckooHashMap<Integer, Integer>(1, 4,
+                code -> murmur.hash(code) & 0xFFFFFFFF1FFFFFFFL);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        java.util.Random random = new java.util.Random(13);
+        for (int i = 0; i < 30000; i++)
+        {
+            Integer key = random.nextInt(8000);
+            if (random.nextInt(4) == 0)
+            {
+                assertEquals(expected.remove(key), crowded.remove(key));
+            }
+            else
+            {
+                assertEquals(expected.put(key, i), crowded.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), crowded.size());
+        for (Map.Entry<Integer, Integer> e : expected.entrySet())
+        {
+            assertEquals(e.getValue(), crowded.get(e.getKey()));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package cuckoohashmap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for CuckooCache class.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class CuckooCacheTest extends TestCase
+{
+    /** Tests that the cache stays bounded and reports its evictions. */
+    public void testEviction()
+    {
+        CuckooCache<Integer, Integer> cache =
+            new CuckooCache<Integer, Integer>(1000);
+        Map<Integer, Integer> evicted = new HashMap<Integer, Integer>();
+        cache.setEvictionListener((k, v) -> assertNull(evicted.put(k, v)));
+        for (int i = 0; i < 5000; i++)
+        {
+            assertNull(cache.put(i, -i));
+            assertTrue(cache.size() <= 1000);
+            assertTrue(cache.containsKey(i));
+        }
+        assertEquals(1000, cache.size());
+        assertEquals(4000, evicted.size());
+        assertEquals(4000, cache.stats().getEvictions());
+        for (int i = 0; i < 5000; i++)
+        {
+            Integer value = cache.get(i);
+            if (value == null)
+            {
+                assertEquals(Integer.valueOf(-i), evicted.get(i));
+            }
+            else
+            {
+                assertEquals(-i, value.intValue());
+                assertFalse(evicted.containsKey(i));
+            }
+        }
+        assertEquals(1000, cache.stats().getHits());
+        assertEquals(4000, cache.stats().getMisses());
+        assertEquals(Integer.valueOf(-4999), cache.put(4999, 0));
+        assertEquals(Integer.valueOf(0), cache.remove(4999));
+        assertEquals(999, cache.size());
+        cache.clear();
+        assertTrue(cache.isEmpty());
+        assertEquals(4000, evicted.size());
+    }
+
+    /** Tests that entries read often outlive entries never read. */
+    public void testRecentlyUsedSurvive()
+    {
+        CuckooCache<Integer, Integer> cache =
+            new CuckooCache<Integer, Integer>(2000);
+        for (int i = 0; i < 1000; i++)
+        {
+            cache.put(i, i);
+        }
+        int hot = 0;
+        for (int round = 0; round < 20; round++)
+        {
+            for (int i = 0; i < 1000; i++)
+            {
+                cache.get(i);
+            }
+            for (int i = 0; i < 500; i++)
+            {
+                cache.put(100000 + round * 500 + i, i);
+            }
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            if (cache.containsKey(i))
+            {
+                hot++;
+            }
+        }
+        assertTrue(hot > 900);
+        assertEquals(2000, cache.size());
+        try
+        {
+            new CuckooCache<Integer, Integer>(0);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Tests unequal keys sharing a hash code, including slots emptied
+     * by remove that still hold the hash of the probe.
+     */
+    public void testCollidingKeys()
+    {
+        CuckooCache<CollidingKey, Integer> cache =
+            new CuckooCache<CollidingKey, Integer>(100, 4,
+                new MurmurHashStrategy(7));
+        for (int id = 0; id < 20; id++)
+        {
+            assertNull(cache.put(new CollidingKey(id, id % 4), id));
+        }
+        for (int id = 0; id < 20; id += 2)
+        {
+            assertEquals(Integer.valueOf(id),
+                cache.remove(new CollidingKey(id, id % 4)));
+        }
+        for (int id = 0; id < 20; id++)
+        {
+            CollidingKey key = new CollidingKey(id, id % 4);
+            assertEquals(id % 2 == 1, cache.containsKey(key));
+            assertEquals((id % 2 == 1) ? Integer.valueOf(id) : null,
+                cache.get(key));
+        }
+        assertNull(cache.get(new CollidingKey(20, 0)));
+        assertNull(cache.remove(new CollidingKey(0, 0)));
+        assertEquals(10, cache.size());
+    }
+
+    /**
+     * Tests that entries keep their cached hashes through displacement
+     * chains, using a hash strategy that crowds every first bucket into
+     * an eighth of the table, so every key is either found or was
+     * reported evicted.
+     */
+    public void testCrowdedHashes()
+    {
+        MurmurHashStrategy murmur = new MurmurHashStrategy(5);
+        CuckooCache<Integer, Integer> cache =
+            new CuckooCache<Integer, Integer>(1000, 4,
+                code -> murmur.hash(code) & 0xFFFFFFFF1FFFFFFFL);
+        Map<Integer, Integer> evicted = new HashMap<Integer, Integer>();
+        cache.setEvictionListener((k, v) -> assertNull(evicted.put(k, v)));
+        for (int i = 0; i < 900; i++)
+        {
+            cache.put(i, -i);
+        }
+        assertTrue(cache.stats().getDisplacementHistogram()[2] > 0);
+        for (int i = 0; i < 900; i++)
+        {
+            Integer value = cache.get(i);
+            if (value == null)
+            {
+                assertTrue(evicted.containsKey(i));
+            }
+            else
+            {
+                assertEquals(-i, value.intValue());
+            }
+        }
+        assertEquals(900, cache.size() + evicted.size());
+    }
+}
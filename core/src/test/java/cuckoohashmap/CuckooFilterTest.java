@@ -0,0 +1,105 @@
+package cuckoohashmap;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for CuckooFilter class.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class CuckooFilterTest extends TestCase
+{
+    /** Tests add, mightContain and remove and the error rate. */
+    public void testMembership()
+    {
+        CuckooFilter<Long> filter = new CuckooFilter<Long>(20000, 0.04);
+        assertEquals(8, filter.fingerprintBits());
+        Random random = new Random(21);
+        Long[] keys = new Long[20000];
+        for (int i = 0; i < keys.length; i++)
+        {
+            keys[i] = random.nextLong();
+            assertTrue(filter.add(keys[i]));
+        }
+        assertEquals(keys.length, filter.size());
+        assertTrue(filter.sizeInBytes() < 2 * keys.length);
+        for (Long key : keys)
+        {
+            assertTrue(filter.mightContain(key));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++)
+        {
+            if (filter.mightContain(random.nextLong()))
+            {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 100000 * 0.04);
+        for (int i = 0; i < keys.length; i += 2)
+        {
+            assertTrue(filter.remove(keys[i]));
+        }
+        assertEquals(keys.length / 2, filter.size());
+        for (int i = 1; i < keys.length; i += 2)
+        {
+            assertTrue(filter.mightContain(keys[i]));
+        }
+    }
+
+    /** Tests wider fingerprints, building from a map and filling up. */
+    public void testFromKeysAndFull()
+    {
+        CuckooHashMap<Integer, Integer> map =
+            new CuckooHashMap<Integer, Integer>(16);
+        for (int i = 0; i < 5000; i++)
+        {
+            map.put(i, i);
+        }
+        CuckooFilter<Integer> filter = CuckooFilter.fromKeys(map.keySet(),
+            0.0005);
+        assertEquals(14, filter.fingerprintBits());
+        for (int i = 0; i < 5000; i++)
+        {
+            assertTrue(filter.mightContain(i));
+        }
+        int falsePositives = 0;
+        for (int i = 5000; i < 105000; i++)
+        {
+            if (filter.mightContain(i))
+            {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 100);
+        CuckooFilter<Integer> tiny = new CuckooFilter<Integer>(4, 0.01);
+        int added = 0;
+        while (tiny.add(added))
+        {
+            added++;
+        }
+        assertTrue(added >= 4);
+        assertEquals(added, tiny.size());
+        try
+        {
+            new CuckooFilter<Integer>(10, 1e-9);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            new CuckooFilter<Integer>(Integer.MAX_VALUE, 1e-3);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertEquals("filter too large", e.getMessage());
+        }
+    }
+}
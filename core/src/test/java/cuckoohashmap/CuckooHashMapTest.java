@@ -0,0 +1,1259 @@
+package cuckoohashmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for CuckooHashMap class.
+ * @author Patrick Parker
+ * @version Nov 27, 2016
+ *
+ */
+public class CuckooHashMapTest extends TestCase
+{
+   
+    private CuckooHashMap<String, String> map;
+    private Map<String, String> map1;
+    private Map<String, String> map2;
+    private Collection<String> c;
+    
+    /** Set up */
+    public void setUp()
+    {
+        map = new CuckooHashMap<String, String>(8);
+        assertTrue(map.isEmpty());
+        map.put("Bus", "Stop");
+        map.put("Key", "Door");
+        map.put("Pen", "Paper");
+        map.put("Glue", "Sticky");
+        map.put("Water", "Wet");
+        map.put("Rock", "Hard");
+        map.put("Air", "Light");
+        map.put("Salt", "Rock");
+        
+        map1 = new HashMap<String, String>();
+        map1.put("Bus", "Stop");
+        map1.put("Key", "Door");
+        map1.put("Pen", "Paper");
+        map1.put("Glue", "Sticky");
+        map1.put("Water", "Wet");
+        map1.put("Rock", "Hard");
+        map1.put("Air", "Light");
+        map1.put("Salt", "Rock");
+        
+        map2 = new HashMap<String, String>();
+        map2.put("Bus", "Key");
+        map2.put("Key", "Pen");
+        map2.put("Pen", "Glue");
+        map2.put("Glue", "Water");
+        map2.put("Water", "Rock");
+        map2.put("Rock", "Air");
+        map2.put("Air", "Salt");
+        map2.put("Rock", "Rock");
+        
+        c = new ArrayList<String>();
+        c.add("Testing");
+        c.add("Not");
+        c.add("Contains");
+    }
+    
+    /** Tests put and get. */
+    public void testPutGet()
+    {
+      
+        assertFalse(map.isEmpty());
+        assertEquals(8, map.size());
+        assertEquals("Door", map.get("Key"));
+        assertEquals("Stop", map.get("Bus"));
+        assertEquals("Paper", map.get("Pen"));
+        assertEquals("Sticky", map.get("Glue"));
+        assertEquals("Wet", map.get("Water"));
+        assertEquals("Hard", map.get("Rock"));
+        assertEquals("Light", map.get("Air"));
+        assertEquals("Rock", map.get("Salt"));
+       
+        assertEquals("Door", map.put("Key", "Door"));
+        assertEquals("Stop", map.put("Bus", "Stop"));
+        assertEquals("Paper", map.put("Pen", "Paper"));
+        assertEquals("Sticky", map.put("Glue", "Sticky"));
+        assertEquals("Wet", map.put("Water", "Wet"));
+        assertEquals("Hard", map.put("Rock", "Hard"));
+        assertEquals("Light", map.put("Air", "Light"));
+        assertEquals("Rock", map.put("Salt", "Rock"));
+    
+    }
+    /** Tests containsKey and containsValue. */
+    public void testContainsKeyValue()
+    {
+        assertTrue(map.containsKey("Key"));
+        assertTrue(map.containsKey("Bus"));
+        assertTrue(map.containsKey("Pen"));
+        assertTrue(map.containsKey("Glue"));
+        assertTrue(map.containsKey("Water"));
+        assertTrue(map.containsKey("Rock"));
+        assertTrue(map.containsKey("Air"));
+        assertTrue(map.containsKey("Salt"));
+        
+        assertTrue(map.containsValue("Door"));
+        assertTrue(map.containsValue("Stop"));
+        assertTrue(map.containsValue("Paper"));
+        assertTrue(map.containsValue("Sticky"));
+        assertTrue(map.containsValue("Wet"));
+        assertTrue(map.containsValue("Hard"));
+        assertTrue(map.containsValue("Light"));
+        assertTrue(map.containsValue("Rock"));
+        assertFalse(map.containsValue("Hammer"));
+    }
+    /** Tests clear and putAll. */
+    public void testClearPutAll()
+    {
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.size());        
+        map.putAll(map1);
+        assertFalse(map.isEmpty());
+        assertEquals(8, map.size());
+        assertEquals("Door", map.get("Key"));
+        assertEquals("Stop", map.get("Bus"));
+        assertEquals("Paper", map.get("Pen"));
+        assertEquals("Sticky", map.get("Glue"));
+        assertEquals("Wet", map.get("Water"));
+        assertEquals("Hard", map.get("Rock"));
+        assertEquals("Light", map.get("Air"));
+        assertEquals("Rock", map.get("Salt"));
+        
+    }
+    /** Tests remove. */
+    public void testRemove()
+    {
+        map.remove("Key");
+        assertEquals(7, map.size());
+        assertFalse(map.containsKey("Key"));
+        assertFalse(map.containsValue("Door"));
+        map.remove("Pen");
+        map.remove("Glue");
+        map.remove("Water");
+        map.remove("Rock");
+        map.remove("Bus");
+        map.remove("Air");
+        Set<Map.Entry<String, String>> set = map.entrySet();
+        Iterator<Map.Entry<String, String>> itr =
+            set.iterator();
+        map.remove("Salt");
+        assertTrue(map.isEmpty());
+        map.put("Bus", "Stop");
+        map.put("Key", "Door");
+        map.put("Pen", "Paper");
+        map.put("Glue", "Sticky");
+        map.put("Water", "Wet");
+        map.put("Rock", "Hard");
+        
+        assertNull(map.remove("Well"));
+        assertNull(map.remove("Kite"));
+        assertNull(map.remove("Orange"));
+        assertNull(map.remove("Yellow"));
+        assertNull(map.remove("Brown"));
+        assertNull(map.remove("Pimk"));
+        assertNull(map.remove("Bubble"));
+        assertNull(map.remove("Purple"));
+        assertEquals(6, map.size());
+        
+        
+    }
+    /** Tests entrySet. */
+    public void testEntrySet()
+    {
+        
+        
+        Set<Map.Entry<String, String>> set2 = map1.entrySet();
+        
+        
+        Set<Map.Entry<String, String>> set = map.entrySet();
+        set = map.entrySet();
+        Iterator<Map.Entry<String, String>> itr = set.iterator();
+        assertEquals(8, set.size());
+        
+        assertTrue(set.containsAll(set2));
+        assertFalse(set.containsAll(c));
+        
+        while (itr.hasNext())
+        {
+            Map.Entry<String, String> e = itr.next();
+            assertTrue(map.containsKey(e.getKey()));
+            assertTrue(map.containsValue(e.getValue()));
+        }
+        assertFalse(itr.hasNext());
+        
+        try
+        {
+            itr.next();
+            fail();
+        }
+        catch (NoSuchElementException e)
+        {
+            assertTrue(true);
+        }
+        
+        itr = set.iterator();
+        map.remove("Rock");
+        
+        try
+        {
+            itr.next();
+            fail();
+        }
+        catch (ConcurrentModificationException e)
+        {
+            assertTrue(true);
+        }
+        
+        try
+        {
+            itr.remove();
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        
+        try
+        {
+            set.remove(null);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.removeAll(set2);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.retainAll(set2);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.add(null);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.addAll(null);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        set.clear();
+    }
+    /** Tests keySet. */
+    public void testKeySet()
+    {
+        Set<String> set = map.keySet();
+        set = map.keySet();
+        assertFalse(set.contains("Something"));
+        Set<String> set2 = map1.keySet();
+        Iterator<String> itr = set.iterator();
+        assertEquals(8, set.size());
+        
+        assertTrue(set.containsAll(set2));
+        
+        assertFalse(set.containsAll(c));
+        
+        while (itr.hasNext())
+        {            
+            assertTrue(map.containsKey(itr.next()));            
+        }
+        
+        try
+        {
+            itr.next();
+            fail();
+        }
+        catch (NoSuchElementException e)
+        {
+            assertTrue(true);
+        }       
+        try
+        {
+            itr.remove();
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        
+        try
+        {
+            set.remove(null);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.removeAll(set2);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.retainAll(set2);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.add(null);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.addAll(null);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        set.clear();
+        
+    }
+    /** Tests values view of map. */
+    public void testValues()
+    {
+        Collection<String> set = map.values();
+        set = map.values();
+        Collection<String> set2 = map1.values();
+        Iterator<String> itr = set.iterator();
+        assertEquals(8, set.size());
+        
+        assertTrue(set.containsAll(set2));
+        
+        assertFalse(set.containsAll(c));
+        
+        while (itr.hasNext())
+        {            
+            assertTrue(map.containsValue(itr.next()));            
+        }        
+        try
+        {
+            itr.remove();
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        
+        try
+        {
+            set.remove(null);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.removeAll(set2);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.retainAll(set2);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.add(null);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        try
+        {
+            set.addAll(null);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertTrue(true);
+        }
+        set.clear();
+        itr = set.iterator();
+    }
+    /** Tests contains more thoroughly on views. */
+    public void testContains()
+    {
+        Set<Map.Entry<String, String>> set = map.entrySet();
+        assertFalse(set.contains("Something"));
+        Iterator<Entry<String, String>> itr = set.iterator();
+        Map.Entry<String, String> entry = itr.next();
+        assertTrue(set.contains(entry));
+        Set<Map.Entry<String, String>> set2 = map2.entrySet();
+        int count = 0;
+        while (itr.hasNext())
+        {
+            itr.next();
+            count++;
+        }
+        assertEquals(7, count);
+        
+        for (Map.Entry<String, String> e : set2)
+        {
+            assertFalse(set.contains(e));
+        }
+    }
+    /** Tests buckets holding several entries, including equal hashes. */
+    public void testBuckets()
+    {
+        CuckooHashMap<String, String> small =
+            new CuckooHashMap<String, String>(2, 4);
+        small.put("Aa", "first");
+        small.put("BB", "second");
+        small.put("AaAa", "third");
+        small.put("BBBB", "fourth");
+        small.put("AaBB", "fifth");
+        assertEquals(5, small.size());
+        assertEquals("first", small.get("Aa"));
+        assertEquals("second", small.get("BB"));
+        assertEquals("third", small.get("AaAa"));
+        assertEquals("fourth", small.get("BBBB"));
+        assertEquals("fifth", small.get("AaBB"));
+        assertFalse(small.containsKey("BBAa"));
+        assertEquals("second", small.remove("BB"));
+        assertEquals("first", small.get("Aa"));
+        assertNull(small.get("BB"));
+        
+        CuckooHashMap<Integer, Integer> nums =
+            new CuckooHashMap<Integer, Integer>(16, 4);
+        for (int i = 0; i < 1000; i++)
+        {
+            assertNull(nums.put(i * 16, i));
+        }
+        assertEquals(1000, nums.size());
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(Integer.valueOf(i), nums.get(i * 16));
+        }
+        for (int i = 0; i < 1000; i += 2)
+        {
+            assertEquals(Integer.valueOf(i), nums.remove(i * 16));
+        }
+        assertEquals(500, nums.size());
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(i % 2 == 1, nums.containsKey(i * 16));
+        }
+    }
+    /** Tests the pluggable hash strategies. */
+    public void testHashStrategy()
+    {
+        HashStrategy murmur = new MurmurHashStrategy(42);
+        HashStrategy tabulation = new TabulationHashStrategy(42);
+        assertEquals(murmur.hash(7), new MurmurHashStrategy(42).hash(7));
+        assertEquals(tabulation.hash(7), 
+            new TabulationHashStrategy(42).hash(7));
+        assertFalse(murmur.hash(7) == new MurmurHashStrategy(43).hash(7));
+        
+        for (HashStrategy strategy : new HashStrategy[] {murmur, tabulation})
+        {
+            CuckooHashMap<Integer, Integer> nums =
+                new CuckooHashMap<Integer, Integer>(64, 4, strategy);
+            for (int i = 0; i < 200; i++)
+            {
+                nums.put(i << 16, i);
+            }
+            assertEquals(200, nums.size());
+            for (int i = 0; i < 200; i++)
+            {
+                assertEquals(Integer.valueOf(i), nums.get(i << 16));
+            }
+        }
+    }
+    /** Tests that entries from the entry set write through. */
+    public void testEntrySetValue()
+    {
+        for (Map.Entry<String, String> e : map.entrySet())
+        {
+            e.setValue(e.getValue() + "!");
+        }
+        assertEquals("Door!", map.get("Key"));
+        assertEquals("Rock!", map.get("Salt"));
+        assertEquals(8, map.size());
+        assertTrue(map.containsValue("Stop!"));
+        assertFalse(map.containsValue("Stop"));
+    }
+    /** Tests inserts with bounded displacement paths. */
+    public void testMaxDisplacements()
+    {
+        for (int depth = 0; depth < 6; depth++)
+        {
+            CuckooHashMap<Integer, Integer> nums =
+                new CuckooHashMap<Integer, Integer>(4, 2);
+            nums.setMaxDisplacements(depth);
+            for (int i = 0; i < 500; i++)
+            {
+                nums.put(i, -i);
+            }
+            assertEquals(500, nums.size());
+            for (int i = 0; i < 500; i++)
+            {
+                assertEquals(Integer.valueOf(-i), nums.get(i));
+            }
+        }
+        try
+        {
+            map.setMaxDisplacements(-1);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+    }
+    /** Tests that the stash absorbs failed inserts. */
+    public void testStash()
+    {
+        CuckooHashMap<String, String> tiny =
+            new CuckooHashMap<String, String>(1, 2);
+        tiny.put("Bus", "Stop");
+        tiny.put("Key", "Door");
+        tiny.put("Pen", "Paper");
+        tiny.put("Glue", "Sticky");
+        tiny.put("Water", "Wet");
+        tiny.put("Rock", "Hard");
+        assertEquals(6, tiny.size());
+        for (int i = 0; i < 6; i++)
+        {
+            assertNotNull(tiny.getEntry(i));
+        }
+        assertEquals("Sticky", tiny.get("Glue"));
+        assertEquals("Hard", tiny.get("Rock"));
+        
+        String first = tiny.getEntry(0).getKey();
+        tiny.remove(first);
+        assertNotNull(tiny.getEntry(0));
+        int stashed = 0;
+        for (int i = 2; i < 6; i++)
+        {
+            stashed += (tiny.getEntry(i) == null) ? 0 : 1;
+        }
+        assertEquals(3, stashed);
+        assertFalse(tiny.containsKey(first));
+        assertEquals(5, tiny.size());
+        assertEquals("Paper", tiny.remove("Pen"));
+        assertNull(tiny.remove("Pen"));
+        
+        tiny.put("Air", "Light");
+        tiny.put("Salt", "Rock");
+        tiny.put("Pen", "Paper");
+        assertEquals(7, tiny.size());
+        assertEquals("Paper", tiny.get("Pen"));
+        assertEquals("Wet", tiny.get("Water"));
+    }
+    /** Tests resizing a few buckets at a time. */
+    public void testIncrementalResize()
+    {
+        CuckooHashMap<Integer, Integer> nums =
+            new CuckooHashMap<Integer, Integer>(2, 4);
+        nums.setIncrementalResize(true);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < 20000; i++)
+        {
+            Integer key = random.nextInt(3000);
+            if (random.nextInt(3) == 0)
+            {
+                assertEquals(expected.remove(key), nums.remove(key));
+            }
+            else
+            {
+                assertEquals(expected.put(key, i), nums.put(key, i));
+            }
+            assertEquals(expected.get(key), nums.get(key));
+            assertEquals(expected.size(), nums.size());
+        }
+        int count = 0;
+        for (Map.Entry<Integer, Integer> e : nums.entrySet())
+        {
+            assertEquals(expected.get(e.getKey()), e.getValue());
+            count++;
+        }
+        assertEquals(expected.size(), count);
+        nums.setIncrementalResize(false);
+        for (Integer key : expected.keySet())
+        {
+            assertTrue(nums.containsKey(key));
+        }
+    }
+    /** Tests that putAll grows the table once up front. */
+    public void testPutAllPresize()
+    {
+        Map<Integer, Integer> source = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 50000; i++)
+        {
+            source.put(i, -i);
+        }
+        CuckooHashMap<Integer, Integer> nums =
+            new CuckooHashMap<Integer, Integer>(1);
+        nums.setStatsEnabled(true);
+        nums.putAll(source);
+        assertEquals(1, nums.stats().getResizeCount());
+        assertEquals(source.size(), nums.size());
+        assertEquals(Integer.valueOf(-49999), nums.get(49999));
+    }
+    /** Tests parallel bulk loading, including repeated keys. */
+    public void testBulkLoad()
+    {
+        java.util.List<Map.Entry<Integer, Integer>> entries =
+            new ArrayList<Map.Entry<Integer, Integer>>();
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        java.util.Random random = new java.util.Random(9);
+        for (int i = 0; i < 100000; i++)
+        {
+            Integer key = random.nextInt(80000);
+            entries.add(new java.util.AbstractMap.SimpleEntry<Integer,
+                Integer>(key, i));
+            expected.put(key, i);
+        }
+        CuckooHashMap<Integer, Integer> nums =
+            CuckooHashMap.bulkLoad(entries, 4);
+        assertEquals(expected.size(), nums.size());
+        for (Map.Entry<Integer, Integer> e : expected.entrySet())
+        {
+            assertEquals(e.getValue(), nums.get(e.getKey()));
+        }
+        int count = 0;
+        for (Map.Entry<Integer, Integer> e : nums.entrySet())
+        {
+            assertEquals(expected.get(e.getKey()), e.getValue());
+            count++;
+        }
+        assertEquals(expected.size(), count);
+        nums = CuckooHashMap.bulkLoad(expected.entrySet().stream(), 1);
+        assertEquals(expected.size(), nums.size());
+        assertTrue(CuckooHashMap.bulkLoad(
+            new ArrayList<Map.Entry<Integer, Integer>>(), 2).isEmpty());
+    }
+    /** Tests looking up a batch of keys, during a resize as well. */
+    public void testGetAll()
+    {
+        CuckooHashMap<Integer, Integer> nums =
+            new CuckooHashMap<Integer, Integer>(4);
+        nums.setIncrementalResize(true);
+        for (int i = 0; i < 1000; i += 2)
+        {
+            nums.put(i, -i);
+        }
+        Integer[] keys = new Integer[37];
+        for (int i = 0; i < keys.length; i++)
+        {
+            keys[i] = i * 27;
+        }
+        Integer[] out = new Integer[keys.length];
+        int found = nums.getAll(keys, out);
+        int expected = 0;
+        for (int i = 0; i < keys.length; i++)
+        {
+            assertEquals(nums.get(keys[i]), out[i]);
+            if (out[i] != null)
+            {
+                expected++;
+            }
+        }
+        assertEquals(expected, found);
+        assertTrue(found > 0 && found < keys.length);
+        try
+        {
+            nums.getAll(keys, new Integer[1]);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+    }
+    /** Tests the spliterators of the views and parallel streams. */
+    public void testSpliterator()
+    {
+        CuckooHashMap<Integer, Integer> nums =
+            new CuckooHashMap<Integer, Integer>(8);
+        nums.setIncrementalResize(true);
+        long keySum = 0;
+        for (int i = 0; i < 5000; i++)
+        {
+            nums.put(i, i % 10);
+            keySum += i;
+        }
+        java.util.Spliterator<Integer> keys = nums.keySet().spliterator();
+        assertTrue(keys.hasCharacteristics(java.util.Spliterator.SIZED));
+        assertTrue(keys.hasCharacteristics(java.util.Spliterator.DISTINCT));
+        assertEquals(5000, keys.getExactSizeIfKnown());
+        java.util.Spliterator<Integer> prefix = keys.trySplit();
+        assertNotNull(prefix);
+        assertFalse(keys.hasCharacteristics(java.util.Spliterator.SIZED));
+        assertTrue(prefix.hasCharacteristics(
+            java.util.Spliterator.NONNULL));
+        int[] count = new int[1];
+        assertTrue(prefix.tryAdvance(k -> count[0]++));
+        prefix.forEachRemaining(k -> count[0]++);
+        keys.forEachRemaining(k -> count[0]++);
+        assertEquals(5000, count[0]);
+        assertEquals(keySum, nums.keySet().parallelStream()
+            .mapToLong(Integer::longValue).sum());
+        assertEquals(5000, nums.entrySet().parallelStream()
+            .filter(e -> e.getValue() == e.getKey() % 10).count());
+        assertEquals(22500, nums.values().parallelStream()
+            .mapToInt(Integer::intValue).sum());
+        assertFalse(nums.values().spliterator().hasCharacteristics(
+            java.util.Spliterator.DISTINCT));
+        java.util.Spliterator<Integer> all = nums.keySet().spliterator();
+        nums.put(-1, 0);
+        try
+        {
+            all.forEachRemaining(k -> count[0]++);
+            fail();
+        }
+        catch (ConcurrentModificationException e)
+        {
+            assertTrue(true);
+        }
+    }
+    /** Tests parallel streams that collect into sized arrays. */
+    public void testParallelCollect()
+    {
+        CuckooHashMap<Integer, Integer> nums =
+            new CuckooHashMap<Integer, Integer>(16);
+        for (int i = 0; i < 200000; i++)
+        {
+            nums.put(i, i);
+        }
+        assertFalse(nums.keySet().spliterator().hasCharacteristics(
+            java.util.Spliterator.SUBSIZED));
+        Object[] keys = nums.keySet().parallelStream().toArray();
+        assertEquals(200000, keys.length);
+        java.util.Set<Object> seen = new java.util.HashSet<Object>(
+            java.util.Arrays.asList(keys));
+        assertEquals(200000, seen.size());
+        java.util.List<Integer> values =
+            nums.values().parallelStream().toList();
+        assertEquals(200000, values.size());
+        assertEquals(nums.entrySet().size(),
+            nums.entrySet().parallelStream().toArray().length);
+    }
+    /** Tests the parallel bulk operations. */
+    public void testBulkOperations()
+    {
+        CuckooHashMap<Integer, Integer> nums =
+            new CuckooHashMap<Integer, Integer>(8);
+        nums.setIncrementalResize(true);
+        long sum = 0;
+        for (int i = 1; i <= 20000; i++)
+        {
+            nums.put(i, 2 * i);
+            sum += 2 * i;
+        }
+        for (long threshold : new long[] {1, Long.MAX_VALUE})
+        {
+            java.util.concurrent.atomic.LongAdder count =
+                new java.util.concurrent.atomic.LongAdder();
+            nums.forEach(threshold, (k, v) -> count.increment());
+            assertEquals(20000, count.sum());
+            assertEquals(Integer.valueOf(14000), nums.search(threshold,
+                (k, v) -> (k == 7000) ? v : null));
+            assertNull(nums.search(threshold, (k, v) -> null));
+            assertEquals(Integer.valueOf(40000), nums.reduceValues(
+                threshold, Math::max));
+            assertEquals(Long.valueOf(sum), nums.reduceValues(threshold,
+                v -> (long) v, Long::sum));
+            assertNull(nums.reduceValues(threshold, v -> null, Long::sum));
+            assertEquals(sum, nums.reduceValuesToLong(threshold,
+                Integer::longValue, 0, Long::sum));
+            assertEquals(3 * sum / 2, nums.reduceToLong(threshold,
+                (k, v) -> k + v, 0, Long::sum));
+        }
+        try
+        {
+            nums.forEach(Long.MAX_VALUE, (k, v) -> nums.put(k, v));
+            fail();
+        }
+        catch (ConcurrentModificationException e)
+        {
+            assertTrue(true);
+        }
+        assertNull(new CuckooHashMap<Integer, Integer>(1).reduceValues(1,
+            Math::max));
+    }
+    /** Tests containsValue through the value index. */
+    public void testValueIndex()
+    {
+        CuckooHashMap<Integer, String> words =
+            new CuckooHashMap<Integer, String>(2);
+        words.put(1, "one");
+        words.put(2, "two");
+        words.setValueIndexEnabled(true);
+        assertTrue(words.stats().getValueIndexBytes() > 0);
+        words.put(3, "two");
+        assertTrue(words.containsValue("two"));
+        words.remove(2);
+        assertTrue(words.containsValue("two"));
+        words.put(3, "three");
+        assertFalse(words.containsValue("two"));
+        assertTrue(words.values().contains("three"));
+        for (Map.Entry<Integer, String> e : words.entrySet())
+        {
+            e.setValue(e.getValue() + "!");
+        }
+        assertFalse(words.containsValue("one"));
+        assertTrue(words.containsValue("one!"));
+        assertFalse(words.containsValue(null));
+        words.put(4, null);
+        assertTrue(words.containsValue(null));
+        words.remove(4);
+        assertFalse(words.containsValue(null));
+        words.clear();
+        assertFalse(words.containsValue("one!"));
+        words.setValueIndexEnabled(false);
+        assertEquals(0, words.stats().getValueIndexBytes());
+        java.util.Random random = new java.util.Random(3);
+        CuckooHashMap<Integer, Integer> nums =
+            new CuckooHashMap<Integer, Integer>(1);
+        nums.setValueIndexEnabled(true);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        for (int i = 0; i < 5000; i++)
+        {
+            Integer key = random.nextInt(500);
+            if (random.nextInt(3) == 0)
+            {
+                nums.remove(key);
+                expected.remove(key);
+            }
+            else
+            {
+                Integer value = random.nextInt(300);
+                nums.put(key, value);
+                expected.put(key, value);
+            }
+            Integer probe = random.nextInt(300);
+            assertEquals(expected.containsValue(probe),
+                nums.containsValue(probe));
+        }
+    }
+    
+    /** Tests entries with a time to live against a manual clock. */
+    public void testExpiry()
+    {
+        AtomicLong time = new AtomicLong();
+        CuckooHashMap<Integer, Integer> ttl =
+            new CuckooHashMap<Integer, Integer>(4);
+        ttl.setClock(time::get);
+        ttl.put(-1, -1);
+        for (int i = 0; i < 1000; i++)
+        {
+            if (i % 2 == 0)
+            {
+                ttl.put(i, i, 10, TimeUnit.MILLISECONDS);
+            }
+            else
+            {
+                ttl.put(i, i);
+            }
+        }
+        assertEquals(1001, ttl.size());
+        time.set(TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(Integer.valueOf(0), ttl.get(0));
+        ttl.put(2, 2);
+        assertEquals(Integer.valueOf(4), ttl.put(4, 4, 1, TimeUnit.HOURS));
+        time.set(TimeUnit.MILLISECONDS.toNanos(20));
+        assertNull(ttl.get(0));
+        assertFalse(ttl.containsKey(6));
+        Integer[] probe = {0, 1, 2, 4};
+        assertEquals(3, ttl.getAll(probe, new Integer[4]));
+        assertEquals(1001, ttl.size());
+        assertNull(ttl.put(8, 8));
+        assertEquals(Integer.valueOf(8), ttl.get(8));
+        assertEquals(504, ttl.size());
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(i % 2 == 1 || i == 2 || i == 4 || i == 8,
+                ttl.containsKey(i));
+        }
+        ttl.put(5000, 5000, 10, TimeUnit.HOURS);
+        time.addAndGet(TimeUnit.HOURS.toNanos(9));
+        ttl.expire();
+        assertTrue(ttl.containsKey(5000));
+        assertFalse(ttl.containsKey(4));
+        time.addAndGet(TimeUnit.HOURS.toNanos(2));
+        ttl.expire();
+        assertFalse(ttl.containsKey(5000));
+        assertEquals(503, ttl.size());
+        for (int i = 10000; i < 20000; i++)
+        {
+            ttl.put(i, i, 1, TimeUnit.SECONDS);
+        }
+        assertEquals(10503, ttl.size());
+        time.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        for (int i = 20000; i < 30000; i++)
+        {
+            ttl.put(i, i);
+        }
+        assertEquals(10503, ttl.size());
+        assertEquals(10503, new HashMap<Integer, Integer>(ttl).size());
+        try
+        {
+            ttl.put(1, 1, 0, TimeUnit.SECONDS);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+    }
+    
+    /** Tests presizing, trimming and automatic shrinking. */
+    public void testCapacity()
+    {
+        CuckooHashMap<Integer, Integer> sized =
+            new CuckooHashMap<Integer, Integer>(1000, 0.5);
+        sized.setStatsEnabled(true);
+        assertTrue(sized.stats().getCapacity() >= 2000);
+        for (int i = 0; i < 1000; i++)
+        {
+            sized.put(i, i);
+        }
+        assertEquals(0, sized.stats().getResizeCount());
+        sized.ensureCapacity(100000);
+        assertTrue(sized.stats().getCapacity() >= 200000);
+        sized.trimToSize();
+        assertTrue(sized.stats().getCapacity() < 2100);
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(Integer.valueOf(i), sized.get(i));
+        }
+        CuckooHashMap<Integer, Integer> drained =
+            new CuckooHashMap<Integer, Integer>(1);
+        drained.setIncrementalResize(true);
+        drained.setAutoShrink(true);
+        for (int i = 0; i < 100000; i++)
+        {
+            drained.put(i, i);
+        }
+        int peak = drained.stats().getCapacity();
+        for (int i = 100; i < 100000; i++)
+        {
+            assertEquals(Integer.valueOf(i), drained.remove(i));
+        }
+        assertTrue(drained.stats().getCapacity() < peak / 100);
+        assertEquals(100, drained.size());
+        for (int i = 0; i < 100; i++)
+        {
+            assertEquals(Integer.valueOf(i), drained.get(i));
+        }
+        CuckooHashMap<Integer, Integer> kept =
+            new CuckooHashMap<Integer, Integer>(1);
+        for (int i = 0; i < 1000; i++)
+        {
+            kept.put(i, i);
+        }
+        int capacity = kept.stats().getCapacity();
+        for (int i = 0; i < 1000; i++)
+        {
+            kept.remove(i);
+        }
+        assertEquals(capacity, kept.stats().getCapacity());
+        try
+        {
+            new CuckooHashMap<Integer, Integer>(10, 0.0);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+    }
+
+    /** Tests iteration over a large table holding few entries. */
+    public void testSparseIteration()
+    {
+        CuckooHashMap<Integer, Integer> sparse =
+            new CuckooHashMap<Integer, Integer>(1);
+        for (int i = 0; i < 100000; i++)
+        {
+            sparse.put(i, -i);
+        }
+        for (int i = 0; i < 100000; i++)
+        {
+            if (i % 1000 != 7)
+            {
+                sparse.remove(i);
+            }
+        }
+        assertEquals(100, sparse.size());
+        int count = 0;
+        for (Entry<Integer, Integer> e : sparse.entrySet())
+        {
+            assertEquals(7, e.getKey() % 1000);
+            assertEquals(-e.getKey(), e.getValue().intValue());
+            count++;
+        }
+        assertEquals(100, count);
+        assertEquals(100, sparse.keySet().stream().count());
+        assertEquals(100, sparse.values().parallelStream().count());
+        assertTrue(sparse.containsValue(-99007));
+        assertFalse(sparse.containsValue(-99008));
+        sparse.clear();
+        assertFalse(sparse.keySet().iterator().hasNext());
+    }
+
+    /**
+     * Tests unequal keys sharing a hash code, including slots emptied
+     * by remove that still hold the hash of the probe.
+     */
+    public void testCollidingKeys()
+    {
+        CuckooHashMap<CollidingKey, Integer> colliding =
+            new CuckooHashMap<CollidingKey, Integer>(4);
+        for (int id = 0; id < 20; id++)
+        {
+            assertNull(colliding.put(new CollidingKey(id, id % 4), id));
+        }
+        assertEquals(20, colliding.size());
+        for (int id = 0; id < 20; id++)
+        {
+            assertEquals(Integer.valueOf(id),
+                colliding.get(new CollidingKey(id, id % 4)));
+        }
+        assertNull(colliding.get(new CollidingKey(20, 0)));
+        for (int id = 0; id < 20; id += 2)
+        {
+            assertEquals(Integer.valueOf(id),
+                colliding.remove(new CollidingKey(id, id % 4)));
+        }
+        for (int id = 0; id < 20; id++)
+        {
+            CollidingKey key = new CollidingKey(id, id % 4);
+            assertEquals(id % 2 == 1, colliding.containsKey(key));
+            assertEquals((id % 2 == 1) ? Integer.valueOf(id) : null,
+                colliding.get(key));
+        }
+        assertNull(colliding.get(new CollidingKey(20, 0)));
+        assertNull(colliding.remove(new CollidingKey(0, 0)));
+        assertEquals(10, colliding.size());
+    }
+
+    /**
+     * Tests refusing a key once more keys share its hash code than its
+     * two buckets and the stash hold, whether or not an incremental
+     * resize is under way, instead of resizing without end.
+     */
+    public void testInseparableKeys()
+    {
+        String[] halves = {"Aa", "BB"};
+        String[] words = new String[16];
+        for (int i = 0; i < words.length; i++)
+        {
+            words[i] = halves[i & 1] + halves[(i >> 1) & 1]
+                + halves[(i >> 2) & 1] + halves[i >> 3];
+            assertEquals(words[0].hashCode(), words[i].hashCode());
+        }
+        for (boolean incremental : new boolean[] {false, true})
+        {
+            CuckooHashMap<Object, Integer> map =
+                new CuckooHashMap<Object, Integer>(8);
+            map.setIncrementalResize(incremental);
+            for (int i = 0; i < 1000; i++)
+            {
+                map.put(i, i);
+            }
+            for (int i = 0; i < 12; i++)
+            {
+                assertNull(map.put(words[i], i));
+            }
+            try
+            {
+                map.put(words[12], 12);
+                fail();
+            }
+            catch (IllegalArgumentException e)
+            {
+                assertTrue(true);
+            }
+            assertEquals(1012, map.size());
+            assertFalse(map.containsKey(words[12]));
+            for (int i = 0; i < 12; i++)
+            {
+                assertEquals(Integer.valueOf(i), map.get(words[i]));
+            }
+            assertEquals(Integer.valueOf(0), map.remove(words[0]));
+            assertNull(map.put(words[12], 12));
+            assertEquals(Integer.valueOf(12), map.get(words[12]));
+            assertEquals(1012, map.size());
+        }
+    }
+
+    /**
+     * Tests that entries keep their cached hashes through displacement
+     * chains, the stash and incremental and full resizes, using a hash
+     * strategy that crowds every first bucket into an eighth of the
+     * table.
+     */
+    public void testCrowdedHashes()
+    {
+        MurmurHashStrategy murmur = new MurmurHashStrategy(5);
+        CuckooHashMap<Integer, Integer> crowded =
+            new CuckooHashMap<Integer, Integer>(1, 4,
+                code -> murmur.hash(code) & 0xFFFFFFFF1FFFFFFFL);
+        crowded.setStatsEnabled(true);
+        crowded.setIncrementalResize(true);
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        java.util.Random random = new java.util.Random(13);
+        for (int i = 0; i < 30000; i++)
+        {
+            Integer key = random.nextInt(8000);
+            if (random.nextInt(4) == 0)
+            {
+                assertEquals(expected.remove(key), crowded.remove(key));
+            }
+            else
+            {
+                assertEquals(expected.put(key, i), crowded.put(key, i));
+            }
+        }
+        CuckooStats stats = crowded.stats();
+        long[] histogram = stats.getDisplacementHistogram();
+        long chains = 0;
+        for (int length = 2; length < histogram.length; length++)
+        {
+            chains += histogram[length];
+        }
+        assertTrue(chains > 0);
+        assertTrue(stats.getStashInserts() > 0);
+        assertTrue(stats.getResizeCount() > 0);
+        for (Map.Entry<Integer, Integer> e : expected.entrySet())
+        {
+            assertEquals(e.getValue(), crowded.get(e.getKey()));
+        }
+        crowded.setIncrementalResize(false);
+        crowded.ensureCapacity(4 * expected.size());
+        assertEquals(expected.size(), crowded.size());
+        for (Map.Entry<Integer, Integer> e : expected.entrySet())
+        {
+            assertEquals(e.getValue(), crowded.get(e.getKey()));
+        }
+    }
+
+    /**
+     * Tests that filling and draining a map over and over does not
+     * make it resize back and forth.
+     */
+    public void testFillDrainCycles()
+    {
+        CuckooHashMap<Integer, Integer> cycled =
+            new CuckooHashMap<Integer, Integer>(1);
+        cycled.setStatsEnabled(true);
+        for (int cycle = 0; cycle < 5; cycle++)
+        {
+            for (int i = 0; i < 50000; i++)
+            {
+                cycled.put(i, i);
+            }
+            long grown = cycled.stats().getResizeCount();
+            for (int i = 0; i < 50000; i++)
+            {
+                cycled.remove(i);
+            }
+            assertEquals(grown, cycled.stats().getResizeCount());
+        }
+        long once = cycled.stats().getResizeCount();
+        for (int i = 0; i < 50000; i++)
+        {
+            cycled.put(i, i);
+        }
+        assertEquals(once, cycled.stats().getResizeCount());
+        cycled.setAutoShrink(true);
+        int key = 50000;
+        long resizes = cycled.stats().getResizeCount();
+        while (cycled.stats().getResizeCount() == resizes)
+        {
+            cycled.remove(--key);
+        }
+        resizes = cycled.stats().getResizeCount();
+        for (int i = 0; i < 1000; i++)
+        {
+            cycled.put(key, key);
+            cycled.remove(key);
+        }
+        assertEquals(resizes, cycled.stats().getResizeCount());
+        long[] counts = new long[3];
+        for (int cycle = 0; cycle < 3; cycle++)
+        {
+            for (int i = 0; i < 50000; i++)
+            {
+                cycled.put(i, i);
+            }
+            for (int i = 0; i < 50000; i++)
+            {
+                cycled.remove(i);
+            }
+            counts[cycle] = cycled.stats().getResizeCount();
+        }
+        long perCycle = counts[2] - counts[1];
+        assertEquals(counts[1] - counts[0], perCycle);
+        assertTrue(perCycle < 32);
+    }
+}
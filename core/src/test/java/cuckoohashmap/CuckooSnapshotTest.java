@@ -0,0 +1,200 @@
+package cuckoohashmap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for CuckooSnapshot class.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class CuckooSnapshotTest extends TestCase
+{
+    private Path dir;
+    private Path file;
+
+    /**
+     * Set up
+     * @throws IOException If the directory cannot be created.
+     */
+    public void setUp() throws IOException
+    {
+        dir = Files.createTempDirectory("snapshot");
+        file = dir.resolve("map.snap");
+    }
+
+    /**
+     * Tear down
+     * @throws IOException If the files cannot be deleted.
+     */
+    public void tearDown() throws IOException
+    {
+        Files.deleteIfExists(file);
+        Files.delete(dir);
+    }
+
+    /**
+     * Tests that a saved map reads back the same, including entries in
+     * the stash, and converts back into an equal map.
+     * @throws IOException If the file cannot be used.
+     */
+    public void testRoundTrip() throws IOException
+    {
+        CuckooHashMap<Long, Integer> map = new CuckooHashMap<Long, Integer>(
+            1, 1, new TabulationHashStrategy(3));
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++)
+        {
+            Long key = random.nextLong();
+            map.put(key, i);
+            expected.put(key, i);
+        }
+        map.writeSnapshot(file, FixedWidthCodec.LONG,
+            FixedWidthCodec.INTEGER);
+        try (CuckooSnapshot<Long, Integer> snapshot = CuckooSnapshot.open(
+            file, FixedWidthCodec.LONG, FixedWidthCodec.INTEGER))
+        {
+            assertEquals(expected.size(), snapshot.size());
+            for (Map.Entry<Long, Integer> e : expected.entrySet())
+            {
+                assertEquals(e.getValue(), snapshot.get(e.getKey()));
+            }
+            assertFalse(snapshot.containsKey(random.nextLong()));
+            Map<Long, Integer> seen = new HashMap<Long, Integer>();
+            snapshot.forEach(seen::put);
+            assertEquals(expected, seen);
+            CuckooHashMap<Long, Integer> copy = snapshot.toMap();
+            assertEquals(expected.size(), copy.size());
+            for (int i = 0; i < expected.size(); i++)
+            {
+                assertEquals(map.getEntry(i) == null,
+                    copy.getEntry(i) == null);
+            }
+            for (Map.Entry<Long, Integer> e : expected.entrySet())
+            {
+                assertEquals(e.getValue(), copy.remove(e.getKey()));
+            }
+            assertTrue(copy.isEmpty());
+        }
+    }
+
+    /**
+     * Tests that files that are not snapshots are rejected.
+     * @throws IOException If the file cannot be used.
+     */
+    public void testBadFile() throws IOException
+    {
+        Files.write(file, new byte[100]);
+        try
+        {
+            CuckooSnapshot.open(file, FixedWidthCodec.LONG,
+                FixedWidthCodec.LONG);
+            fail();
+        }
+        catch (IOException e)
+        {
+            assertTrue(true);
+        }
+        CuckooHashMap<Long, Long> map = new CuckooHashMap<Long, Long>(4);
+        map.put(1L, 2L);
+        map.writeSnapshot(file, FixedWidthCodec.LONG, FixedWidthCodec.LONG);
+        try
+        {
+            CuckooSnapshot.open(file, FixedWidthCodec.LONG,
+                FixedWidthCodec.INTEGER);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+        CuckooSnapshot<Long, Long> snapshot = CuckooSnapshot.open(file,
+            FixedWidthCodec.LONG, FixedWidthCodec.LONG);
+        assertEquals(Long.valueOf(2), snapshot.get(1L));
+        snapshot.close();
+        snapshot.close();
+        try
+        {
+            snapshot.get(1L);
+            fail();
+        }
+        catch (IllegalStateException e)
+        {
+            assertTrue(true);
+        }
+    }
+
+    /**
+     * Tests that lookups from many threads at once see the right keys.
+     * @throws IOException If the file cannot be used.
+     */
+    public void testConcurrentReads() throws IOException
+    {
+        CuckooHashMap<Long, Long> map = new CuckooHashMap<Long, Long>(1);
+        for (long i = 0; i < 10000; i++)
+        {
+            map.put(i, -i);
+        }
+        map.writeSnapshot(file, FixedWidthCodec.LONG, FixedWidthCodec.LONG);
+        try (CuckooSnapshot<Long, Long> snapshot = CuckooSnapshot.open(
+            file, FixedWidthCodec.LONG, FixedWidthCodec.LONG))
+        {
+            assertTrue(IntStream.range(0, 400000).parallel().allMatch(i ->
+            {
+                long key = i % 20000;
+                Long value = snapshot.get(key);
+                return (key < 10000) ? value == -key
+                    && snapshot.containsKey(key)
+                    : value == null && !snapshot.containsKey(key);
+            }));
+        }
+    }
+
+    /**
+     * Tests that a map restored from a snapshot, stash included, keeps
+     * working as it grows: restore must cache each entry's mixed hash,
+     * or later displacements and resizes would lose entries.
+     * @throws IOException If the file cannot be used.
+     */
+    public void testRestoredHashes() throws IOException
+    {
+        CuckooHashMap<Long, Long> map = new CuckooHashMap<Long, Long>(2, 1,
+            new MurmurHashStrategy(9));
+        map.setStatsEnabled(true);
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        Random random = new Random(19);
+        while (map.stats().getStashed() == 0)
+        {
+            long key = random.nextLong();
+            map.put(key, -key);
+            expected.put(key, -key);
+        }
+        map.writeSnapshot(file, FixedWidthCodec.LONG, FixedWidthCodec.LONG);
+        CuckooHashMap<Long, Long> copy;
+        try (CuckooSnapshot<Long, Long> snapshot = CuckooSnapshot.open(
+            file, FixedWidthCodec.LONG, FixedWidthCodec.LONG))
+        {
+            copy = snapshot.toMap();
+        }
+        for (int i = 0; i < 5000; i++)
+        {
+            long key = random.nextLong();
+            copy.put(key, -key);
+            expected.put(key, -key);
+        }
+        assertEquals(expected.size(), copy.size());
+        for (Map.Entry<Long, Long> e : expected.entrySet())
+        {
+            assertEquals(e.getValue(), copy.get(e.getKey()));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package cuckoohashmap;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for CuckooStats class.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class CuckooStatsTest extends TestCase
+{
+    private CuckooHashMap<Integer, Integer> map;
+
+    /** Set up */
+    public void setUp()
+    {
+        map = new CuckooHashMap<Integer, Integer>(1, 2);
+    }
+
+    /** Tests the counters and the occupancy figures. */
+    public void testCounters()
+    {
+        CuckooStats stats = map.stats();
+        map.put(-1, -1);
+        map.get(-1);
+        assertEquals(0, stats.getHits());
+        map.setStatsEnabled(true);
+        for (int i = 0; i < 1000; i++)
+        {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 1500; i++)
+        {
+            map.get(i);
+        }
+        assertTrue(map.containsKey(999));
+        assertEquals(1001, stats.getHits());
+        assertEquals(500, stats.getMisses());
+        assertEquals(1001.0 / 1501, stats.getHitRatio(), 1e-9);
+        long placed = stats.getStashInserts();
+        for (long count : stats.getDisplacementHistogram())
+        {
+            placed += count;
+        }
+        assertEquals(1000, placed);
+        assertTrue(stats.getResizeCount() > 0);
+        assertTrue(stats.getMaxResizeNanos() <= stats.getResizeNanos());
+        assertEquals(1001, stats.getSize());
+        assertEquals(1001.0 / stats.getCapacity(), stats.getLoadFactor(),
+            1e-9);
+        assertTrue(stats.getLoadFactor() <= 1);
+        map.setStatsEnabled(false);
+        map.get(0);
+        assertEquals(1001, stats.getHits());
+        stats.reset();
+        assertEquals(0, stats.getHits());
+        assertEquals(0, stats.getResizeCount());
+        assertEquals(1001, stats.getSize());
+    }
+
+    /**
+     * Tests that the statistics can be read over JMX.
+     * @throws JMException If registration fails.
+     */
+    public void testRegister() throws JMException
+    {
+        map.setStatsEnabled(true);
+        map.get(1);
+        ObjectName name = map.stats().register("test");
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertEquals(Long.valueOf(1), server.getAttribute(name, "Misses"));
+        assertEquals(Integer.valueOf(0), server.getAttribute(name, "Size"));
+        map.stats().unregister();
+        assertFalse(server.isRegistered(name));
+    }
+
+    /**
+     * Tests that entries re-placed by an incremental resize are not
+     * counted as displacements or stash inserts of new keys.
+     */
+    public void testResizeNotCounted()
+    {
+        map.setIncrementalResize(true);
+        map.setStatsEnabled(true);
+        CuckooStats stats = map.stats();
+        for (int i = 0; i < 1000; i++)
+        {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            map.put(i, -i);
+        }
+        long placed = stats.getStashInserts();
+        for (long count : stats.getDisplacementHistogram())
+        {
+            placed += count;
+        }
+        assertEquals(1000, placed);
+        assertTrue(stats.getResizeCount() > 5);
+    }
+
+    /**
+     * Tests that an incremental resize is recorded once its migration
+     * is done, with the time of the migration.
+     */
+    public void testIncrementalResizeTimed()
+    {
+        for (int i = 0; i < 5000; i++)
+        {
+            map.put(i, i);
+        }
+        map.setIncrementalResize(true);
+        map.setStatsEnabled(true);
+        CuckooStats stats = map.stats();
+        int capacity = stats.getCapacity();
+        int key = 5000;
+        while (stats.getCapacity() == capacity)
+        {
+            map.put(key, key);
+            key++;
+        }
+        assertEquals(0, stats.getResizeCount());
+        assertEquals(0, stats.getResizeNanos());
+        map.get(0);
+        map.put(0, 1);
+        assertEquals(0, stats.getResizeCount());
+        map.setIncrementalResize(false);
+        assertEquals(1, stats.getResizeCount());
+        assertTrue(stats.getResizeNanos() > 0);
+        assertEquals(stats.getResizeNanos(), stats.getMaxResizeNanos());
+        for (int i = 0; i < key; i++)
+        {
+            assertEquals(Integer.valueOf((i == 0) ? 1 : i), map.get(i));
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package cuckoohashmap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for CuckooWriteAheadLog class.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class CuckooWriteAheadLogTest extends TestCase
+{
+    private Path dir;
+
+    /**
+     * Set up
+     * @throws IOException If the directory cannot be created.
+     */
+    public void setUp() throws IOException
+    {
+        dir = Files.createTempDirectory("wal");
+    }
+
+    /**
+     * Tear down
+     * @throws IOException If the files cannot be deleted.
+     */
+    public void tearDown() throws IOException
+    {
+        try (Stream<Path> files = Files.list(dir))
+        {
+            for (Path file : (Iterable<Path>) files::iterator)
+            {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+
+    /**
+     * Opens the test directory.
+     * @param policy The fsync policy.
+     * @return The log.
+     * @throws IOException If the files cannot be read.
+     */
+    private CuckooWriteAheadLog<Long, Long> open(
+            CuckooWriteAheadLog.FsyncPolicy policy) throws IOException
+    {
+        return CuckooWriteAheadLog.open(dir, FixedWidthCodec.LONG,
+            FixedWidthCodec.LONG, policy);
+    }
+
+    /**
+     * Tests that random mutations survive reopening, with and without
+     * compaction along the way.
+     * @throws IOException If the files cannot be used.
+     */
+    public void testRecovery() throws IOException
+    {
+        Map<Long, Long> expected = new HashMap<Long, Long>();
+        Random random = new Random(17);
+        CuckooWriteAheadLog<Long, Long> log =
+            open(CuckooWriteAheadLog.FsyncPolicy.BATCH);
+        log.setBatchSize(64);
+        log.setCompactionThreshold(20000);
+        CuckooHashMap<Long, Long> map = log.map();
+        for (int i = 0; i < 20000; i++)
+        {
+            Long key = (long) random.nextInt(3000);
+            int op = random.nextInt(100);
+            if (op == 0)
+            {
+                expected.clear();
+                map.clear();
+            }
+            else if (op < 30)
+            {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else
+            {
+                assertEquals(expected.put(key, (long) i), map.put(key,
+                    (long) i));
+            }
+        }
+        assertTrue(Files.exists(dir.resolve("snapshot")));
+        assertTrue(log.logSize() < 20000 + 64 * 17 + 8);
+        log.close();
+        log = open(CuckooWriteAheadLog.FsyncPolicy.BATCH);
+        assertEquals(expected, new HashMap<Long, Long>(log.map()));
+        log.compact();
+        assertEquals(0, log.logSize());
+        log.map().put(-1L, -1L);
+        log.close();
+        log = open(CuckooWriteAheadLog.FsyncPolicy.BATCH);
+        expected.put(-1L, -1L);
+        assertEquals(expected, new HashMap<Long, Long>(log.map()));
+        log.close();
+    }
+
+    /**
+     * Tests that each mutation reaches the file at once under ALWAYS and
+     * that a torn batch at the end of the log is dropped.
+     * @throws IOException If the files cannot be used.
+     */
+    public void testTornBatch() throws IOException
+    {
+        CuckooWriteAheadLog<Long, Long> log =
+            open(CuckooWriteAheadLog.FsyncPolicy.ALWAYS);
+        log.map().put(1L, 10L);
+        log.map().put(2L, 20L);
+        log.map().remove(1L);
+        long intact = log.logSize();
+        assertEquals(intact, Files.size(dir.resolve("wal")));
+        Files.write(dir.resolve("wal"), new byte[] {0, 0, 0, 17, 1, 2},
+            StandardOpenOption.APPEND);
+        CuckooWriteAheadLog<Long, Long> recovered =
+            open(CuckooWriteAheadLog.FsyncPolicy.ALWAYS);
+        assertEquals(1, recovered.map().size());
+        assertEquals(Long.valueOf(20), recovered.map().get(2L));
+        assertEquals(intact, Files.size(dir.resolve("wal")));
+        recovered.close();
+        log.close();
+    }
+
+    /**
+     * Tests that mutations which throw or change nothing leave no
+     * record, so reopening gives back exactly the live map.
+     * @throws IOException If the files cannot be used.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void testRejectedMutations() throws IOException
+    {
+        CuckooWriteAheadLog<Long, Long> log =
+            open(CuckooWriteAheadLog.FsyncPolicy.ALWAYS);
+        CuckooHashMap<Long, Long> map = log.map();
+        map.put(1L, 10L);
+        map.put(2L, 20L);
+        long size = log.logSize();
+        try
+        {
+            map.put(3L, null);
+            fail();
+        }
+        catch (NullPointerException e)
+        {
+            assertFalse(map.containsKey(3L));
+        }
+        assertNull(((Map) map).remove("1"));
+        assertNull(map.remove(4L));
+        assertEquals(size, log.logSize());
+        Map.Entry<Long, Long> entry = map.entrySet().iterator().next();
+        Long key = entry.getKey();
+        map.remove(key);
+        size = log.logSize();
+        assertEquals(entry.getValue(), entry.setValue(99L));
+        assertFalse(map.containsKey(key));
+        assertEquals(size, log.logSize());
+        map.put(5L, 50L);
+        log.close();
+        CuckooWriteAheadLog<Long, Long> recovered =
+            open(CuckooWriteAheadLog.FsyncPolicy.ALWAYS);
+        assertEquals(new HashMap<Long, Long>(map),
+            new HashMap<Long, Long>(recovered.map()));
+        assertEquals(2, recovered.map().size());
+        assertFalse(recovered.map().containsKey(key));
+        recovered.close();
+    }
+
+    /**
+     * Tests that the logged map refuses entries with a time to live
+     * and that nothing of the attempt survives reopening.
+     * @throws IOException If the files cannot be used.
+     */
+    public void testTimeToLiveRejected() throws IOException
+    {
+        CuckooWriteAheadLog<Long, Long> log =
+            open(CuckooWriteAheadLog.FsyncPolicy.ALWAYS);
+        log.map().put(1L, 10L);
+        try
+        {
+            log.map().put(2L, 20L, 1, TimeUnit.MINUTES);
+            fail();
+        }
+        catch (UnsupportedOperationException e)
+        {
+            assertEquals(1, log.map().size());
+        }
+        log.close();
+        log = open(CuckooWriteAheadLog.FsyncPolicy.ALWAYS);
+        assertEquals(1, log.map().size());
+        assertFalse(log.map().containsKey(2L));
+        log.close();
+        assertNull(log.map().put(2L, 20L, 1, TimeUnit.MINUTES));
+        assertEquals(Long.valueOf(20), log.map().get(2L));
+    }
+}
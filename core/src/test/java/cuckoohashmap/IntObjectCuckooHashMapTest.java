@@ -0,0 +1,64 @@
+package cuckoohashmap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for IntObjectCuckooHashMap class.  The shared table is
+ * covered by LongObjectCuckooHashMapTest; these tests cover the int
+ * keys, which the table holds widened to long.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class IntObjectCuckooHashMapTest extends TestCase
+{
+    /** Tests the zero key, negative keys and the extremes of int. */
+    public void testKeys()
+    {
+        IntObjectCuckooHashMap<String> map =
+            new IntObjectCuckooHashMap<String>(1);
+        int[] keys = {0, -1, 1, Integer.MIN_VALUE, Integer.MAX_VALUE,
+            -65536, 65536};
+        for (int key : keys)
+        {
+            assertNull(map.put(key, "v" + key));
+        }
+        assertEquals(keys.length, map.size());
+        for (int key : keys)
+        {
+            assertTrue(map.containsKey(key));
+            assertEquals("v" + key, map.get(key));
+        }
+        assertFalse(map.containsKey(2));
+        assertEquals("none", map.getOrDefault(-2, "none"));
+        assertEquals("v0", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertNull(map.remove(0));
+        assertEquals("v-1", map.remove(-1));
+        assertEquals(keys.length - 2, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(Integer.MIN_VALUE));
+    }
+
+    /** Tests that forEach gives back every key narrowed intact. */
+    public void testForEach()
+    {
+        IntObjectCuckooHashMap<Integer> map =
+            new IntObjectCuckooHashMap<Integer>(1);
+        for (int i = -5000; i <= 5000; i++)
+        {
+            map.put(i * 7919, i);
+        }
+        Map<Integer, Integer> seen = new HashMap<Integer, Integer>();
+        map.forEach((k, v) -> assertNull(seen.put(k, v)));
+        assertEquals(10001, seen.size());
+        for (Map.Entry<Integer, Integer> e : seen.entrySet())
+        {
+            assertEquals(e.getValue() * 7919, e.getKey().intValue());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package cuckoohashmap;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for LongLongCuckooHashMap class.  The shared table is
+ * covered by LongObjectCuckooHashMapTest; these tests cover the
+ * primitive values, where 0 stands for absent.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class LongLongCuckooHashMapTest extends TestCase
+{
+    /** Tests telling absent keys from keys mapped to 0. */
+    public void testZeroValues()
+    {
+        LongLongCuckooHashMap map = new LongLongCuckooHashMap(2);
+        assertEquals(0L, map.put(7, 1));
+        assertEquals(1L, map.put(7, 0));
+        assertEquals(0L, map.get(7));
+        assertTrue(map.containsKey(7));
+        assertEquals(0L, map.getOrDefault(7, -1));
+        assertEquals(0L, map.get(8));
+        assertFalse(map.containsKey(8));
+        assertEquals(-1L, map.getOrDefault(8, -1));
+        assertEquals(0L, map.put(0, 0));
+        assertTrue(map.containsKey(0));
+        assertEquals(0L, map.getOrDefault(0, -1));
+        assertEquals(2, map.size());
+        assertEquals(0L, map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(-1L, map.getOrDefault(0, -1));
+        assertEquals(0L, map.remove(7));
+        assertTrue(map.isEmpty());
+    }
+
+    /** Tests keys that differ only in their upper 32 bits. */
+    public void testWideKeys()
+    {
+        LongLongCuckooHashMap map = new LongLongCuckooHashMap(1);
+        long[] keys = {1L, 1L << 32, (1L << 32) | 1, -1L, 0xFFFFFFFFL,
+            Long.MIN_VALUE, Long.MAX_VALUE};
+        for (int i = 0; i < keys.length; i++)
+        {
+            assertEquals(0L, map.put(keys[i], i + 1));
+        }
+        assertEquals(keys.length, map.size());
+        for (int i = 0; i < keys.length; i++)
+        {
+            assertEquals(i + 1, map.get(keys[i]));
+        }
+        assertFalse(map.containsKey(1L << 33));
+        long[] sum = new long[1];
+        map.forEach((k, v) -> sum[0] += v);
+        assertEquals(keys.length * (keys.length + 1) / 2, sum[0]);
+        assertEquals(2L, map.remove(1L << 32));
+        assertEquals(1L, map.get(1L));
+        map.clear();
+        assertFalse(map.containsKey(-1L));
+    }
+}
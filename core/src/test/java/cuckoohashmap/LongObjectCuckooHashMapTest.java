@@ -0,0 +1,150 @@
+package cuckoohashmap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for LongObjectCuckooHashMap class, and through it the
+ * table shared by the maps with primitive keys.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class LongObjectCuckooHashMapTest extends TestCase
+{
+    /** Tests put, get, remove and the zero key. */
+    public void testPutGetRemove()
+    {
+        LongObjectCuckooHashMap<String> map =
+            new LongObjectCuckooHashMap<String>(2);
+        assertTrue(map.isEmpty());
+        assertNull(map.put(7, "v1"));
+        assertEquals("v1", map.put(7, "v2"));
+        assertEquals("v2", map.get(7));
+        assertFalse(map.containsKey(0));
+        assertNull(map.put(0, "v1"));
+        assertTrue(map.containsKey(0));
+        assertEquals("v1", map.get(0));
+        assertEquals(2, map.size());
+        assertNull(map.get(8));
+        assertEquals("v3", map.getOrDefault(8, "v3"));
+        assertEquals("v1", map.remove(0));
+        assertNull(map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(1, map.size());
+        assertNull(map.put(0, null));
+        assertTrue(map.containsKey(0));
+        assertNull(map.getOrDefault(0, "v3"));
+        assertNull(map.remove(0));
+        assertEquals("v2", map.remove(7));
+        assertTrue(map.isEmpty());
+        map.put(-1, "v3");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(-1));
+    }
+
+    /**
+     * Tests against HashMap with random keys, forcing displacements and
+     * resizes of the shared table from a single bucket.
+     */
+    public void testRandomOperations()
+    {
+        LongObjectCuckooHashMap<String> map =
+            new LongObjectCuckooHashMap<String>(1);
+        Map<Long, String> expected = new HashMap<Long, String>();
+        Random random = new Random(3);
+        for (int i = 0; i < 50000; i++)
+        {
+            long key = random.nextInt(20000) - 10000;
+            if (random.nextInt(4) == 0)
+            {
+                assertEquals(expected.containsKey(key), map.containsKey(key));
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else
+            {
+                assertEquals(expected.put(key, "v" + i), map.put(key,
+                    "v" + i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        Map<Long, String> seen = new HashMap<Long, String>();
+        map.forEach((k, v) -> assertNull(seen.put(k, v)));
+        assertEquals(expected, seen);
+    }
+
+    /**
+     * Tests refusing a key once more keys share its hash than its two
+     * buckets hold, instead of resizing without end.  The strategy
+     * gives every multiple of 1000 the same hash.
+     */
+    public void testInseparableKeys()
+    {
+        HashStrategy strategy = new MurmurHashStrategy(5)
+        {
+            public long hashLong(long key)
+            {
+                return super.hashLong((key % 1000 == 0) ? 1000 : key);
+            }
+        };
+        LongObjectCuckooHashMap<String> map =
+            new LongObjectCuckooHashMap<String>(1, 4, strategy);
+        for (long i = 1; i <= 8000; i++)
+        {
+            if (i % 1000 != 0)
+            {
+                map.put(i, "v" + i);
+            }
+        }
+        for (long i = 1; i <= 8; i++)
+        {
+            assertNull(map.put(i * 1000, "v" + i));
+        }
+        try
+        {
+            map.put(9000, "v9");
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+        assertEquals(8000, map.size());
+        assertFalse(map.containsKey(9000));
+        assertEquals("v1", map.remove(1000));
+        assertNull(map.put(9000, "v9"));
+        assertEquals("v9", map.get(9000));
+        assertEquals("v8", map.get(8000));
+    }
+
+    /**
+     * Tests keys that Long.hashCode folds to 0, both with a strategy of
+     * its own for long keys and with the default of HashStrategy.
+     */
+    public void testFoldedKeys()
+    {
+        MurmurHashStrategy murmur = new MurmurHashStrategy(5);
+        HashStrategy[] strategies = {new TabulationHashStrategy(5),
+            code -> murmur.hash(code)};
+        for (HashStrategy strategy : strategies)
+        {
+            LongObjectCuckooHashMap<String> map =
+                new LongObjectCuckooHashMap<String>(1, 4, strategy);
+            for (long i = 1; i <= 5000; i++)
+            {
+                assertEquals(0, Long.hashCode(i * 0x100000001L));
+                assertNull(map.put(i * 0x100000001L, "v" + i));
+            }
+            assertEquals(5000, map.size());
+            for (long i = 1; i <= 5000; i++)
+            {
+                assertEquals("v" + i, map.get(i * 0x100000001L));
+            }
+            assertFalse(map.containsKey(0x100000000L));
+        }
+    }
+}
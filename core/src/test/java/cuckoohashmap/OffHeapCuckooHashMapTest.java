@@ -0,0 +1,143 @@
+package cuckoohashmap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for OffHeapCuckooHashMap class.
+ * @author Patrick Parker
+ * @version Oct 17, 2026
+ *
+ */
+public class OffHeapCuckooHashMapTest extends TestCase
+{
+    private OffHeapCuckooHashMap<Long, Integer> map;
+
+    /** Set up */
+    public void setUp()
+    {
+        map = new OffHeapCuckooHashMap<Long, Integer>(1,
+            FixedWidthCodec.LONG, FixedWidthCodec.INTEGER);
+    }
+
+    /** Tear down */
+    public void tearDown()
+    {
+        map.close();
+    }
+
+    /** Tests put, get and remove. */
+    public void testPutGetRemove()
+    {
+        assertTrue(map.isEmpty());
+        assertNull(map.put(5L, 50));
+        assertEquals(Integer.valueOf(50), map.put(5L, 55));
+        assertEquals(Integer.valueOf(55), map.get(5L));
+        assertTrue(map.containsKey(5L));
+        assertFalse(map.containsKey(6L));
+        assertNull(map.get(6L));
+        assertEquals(1, map.size());
+        assertEquals(Integer.valueOf(55), map.remove(5L));
+        assertNull(map.remove(5L));
+        assertTrue(map.isEmpty());
+        map.put(7L, 70);
+        map.clear();
+        assertFalse(map.containsKey(7L));
+        assertTrue(map.isEmpty());
+    }
+
+    /** Tests against HashMap with random keys and resizing. */
+    public void testRandomOperations()
+    {
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        Random random = new Random(5);
+        for (int i = 0; i < 30000; i++)
+        {
+            Long key = random.nextLong() % 10000;
+            if (random.nextInt(4) == 0)
+            {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+            else
+            {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> e : expected.entrySet())
+        {
+            assertEquals(e.getValue(), map.get(e.getKey()));
+        }
+    }
+
+    /**
+     * Tests refusing a key once more keys share its hash code than its
+     * two buckets hold, instead of resizing without end.  Long.hashCode
+     * is 0 for every multiple of 2^32 + 1.
+     */
+    public void testInseparableKeys()
+    {
+        for (long i = 1; i <= 1000; i++)
+        {
+            map.put(i, (int) i);
+        }
+        for (long i = 1; i <= 8; i++)
+        {
+            assertNull(map.put(i * 0x100000001L, (int) i));
+        }
+        try
+        {
+            map.put(9 * 0x100000001L, 9);
+            fail();
+        }
+        catch (IllegalArgumentException e)
+        {
+            assertTrue(true);
+        }
+        assertEquals(1008, map.size());
+        assertFalse(map.containsKey(9 * 0x100000001L));
+        assertEquals(Integer.valueOf(1), map.remove(0x100000001L));
+        assertNull(map.put(9 * 0x100000001L, 9));
+        for (long i = 2; i <= 9; i++)
+        {
+            assertEquals(Integer.valueOf((int) i), map.get(i * 0x100000001L));
+        }
+    }
+
+    /** Tests that a closed map cannot be used. */
+    public void testClose()
+    {
+        map.put(1L, 1);
+        map.close();
+        map.close();
+        try
+        {
+            map.get(1L);
+            fail();
+        }
+        catch (IllegalStateException e)
+        {
+            assertTrue(true);
+        }
+    }
+
+    /** Tests that lookups from many threads at once see the right keys. */
+    public void testConcurrentReads()
+    {
+        for (int i = 0; i < 10000; i++)
+        {
+            map.put((long) i, i);
+        }
+        assertTrue(IntStream.range(0, 400000).parallel().allMatch(i ->
+        {
+            long key = i % 20000;
+            Integer value = map.get(key);
+            return (key < 10000) ? value == key && map.containsKey(key)
+                : value == null && !map.containsKey(key);
+        }));
+    }
+}